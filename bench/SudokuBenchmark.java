@@ -0,0 +1,264 @@
+package sudoku;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Filename:    SudokuBenchmark.java
+ * Purpose:     Measure the throughput, average latency and allocation of the
+ *              solver engines, the file parsers and the solution writer over
+ *              a fixed set of puzzles, so changes can be compared on real
+ *              numbers.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuBenchmark {
+
+    private static final String PUZZLE_DIRECTORY = "bench/puzzles";
+    private static final String[] PUZZLE_NAMES
+            = {"easy", "hard", "minimal17", "multi"};
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 1_000_000_000L;
+
+    // Written by every benchmark so the JIT cannot remove the work
+    private static volatile long sink;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN
+            = (com.sun.management.ThreadMXBean)
+                    ManagementFactory.getThreadMXBean();
+
+    private final List<String> names = new ArrayList<>();
+    private final List<SudokuBenchmarkOperation> operations = new ArrayList<>();
+
+    /* One benchmarked operation, returning a value that depends on its
+     * result.
+     */
+    private interface SudokuBenchmarkOperation {
+        long run() throws Exception;
+    }
+
+    private void add(String name, SudokuBenchmarkOperation operation) {
+        this.names.add(name);
+        this.operations.add(operation);
+    }
+
+    private static SudokuGrid parse(File file) {
+        return new SudokuFileParser(file).parseToGrid();
+    }
+
+    private static long solveSequentially(SudokuSolver solver, SudokuGrid grid) {
+
+        SudokuSolutionBuffer buffer
+                = new SudokuSolutionBuffer(true, Long.MAX_VALUE);
+        solver.solveAll(grid, buffer);
+
+        return buffer.getCount();
+    }
+
+    // The same work as SudokuHandler's multithreaded path, without output
+    private static long solveInParallel(SudokuGrid grid,
+                                        SudokuSolveOptions options) {
+
+        ForkJoinPool pool = new ForkJoinPool();
+        ThreadLocal<SudokuBacktrackingSolver> workerSolvers
+                = ThreadLocal.withInitial(() -> new SudokuBacktrackingSolver(
+                        options.isUsingMinimumRemainingValues(),
+                        options.isUsingConstraintPropagation()));
+        SudokuSolutionBuffer buffer
+                = new SudokuSolutionBuffer(true, Long.MAX_VALUE);
+        SudokuSolverTask rootTask = new SudokuSolverTask(grid, workerSolvers,
+                options.getSplitDepth(), buffer);
+
+        pool.invoke(rootTask);
+        pool.shutdown();
+        rootTask.collectSolutions(buffer);
+
+        return buffer.getCount();
+    }
+
+    private void addBenchmarks(String puzzleName) {
+
+        final File file = new File(PUZZLE_DIRECTORY, puzzleName + ".txt");
+        final SudokuGrid grid = parse(file);
+
+        final SudokuSolveOptions parallel = new SudokuSolveOptions();
+        final SudokuSolveOptions parallelFast = new SudokuSolveOptions();
+        parallelFast.setUseMinimumRemainingValues(true);
+        parallelFast.setUseConstraintPropagation(true);
+
+        final SudokuSolver rowOrder = new SudokuBacktrackingSolver(false, false);
+        final SudokuSolver fewestCandidates
+                = new SudokuBacktrackingSolver(true, false);
+        final SudokuSolver propagating = new SudokuBacktrackingSolver(true, true);
+        final SudokuSolver dancingLinks = new SudokuDancingLinksSolver();
+
+        this.add("solveFromCell/" + puzzleName,
+                () -> solveSequentially(rowOrder, grid));
+        this.add("solveFromBestCell/" + puzzleName,
+                () -> solveSequentially(fewestCandidates, grid));
+        this.add("solveWithPropagation/" + puzzleName,
+                () -> solveSequentially(propagating, grid));
+        this.add("dancingLinks/" + puzzleName,
+                () -> solveSequentially(dancingLinks, grid));
+        this.add("solutionIterator/" + puzzleName,
+                () -> SudokuSolutionIterator.stream(grid, true, true).count());
+        this.add("solveUsingMultithreading/" + puzzleName,
+                () -> solveInParallel(grid, parallel));
+        this.add("solveUsingMultithreadingPropagation/" + puzzleName,
+                () -> solveInParallel(grid, parallelFast));
+
+        this.add("parseToGrid/" + puzzleName, () -> parse(file).get(0));
+        this.add("streamParser/" + puzzleName, () -> {
+            try (FileChannel channel = FileChannel.open(file.toPath())) {
+                SudokuStreamParser parser = new SudokuStreamParser(channel);
+                long count = 0;
+                while (parser.readNext()) {
+                    count++;
+                }
+                return count;
+            }
+        });
+
+        final SudokuSolutionBuffer solutions
+                = new SudokuSolutionBuffer(true, Long.MAX_VALUE);
+        propagating.solveAll(grid, solutions);
+
+        for (final SudokuOutputFormat format : SudokuOutputFormat.values()) {
+            this.add("printSolutions-" + format.name().toLowerCase() + "/"
+                    + puzzleName, () -> {
+                CountingOutputStream out = new CountingOutputStream();
+                SudokuSolutionWriter writer
+                        = new SudokuSolutionWriter(out, format);
+                SudokuGrid solution = new SudokuGrid();
+                for (long i = 0; i < solutions.getStoredCount(); i++) {
+                    solutions.copySolution(i, solution);
+                    writer.writeSolution(solution, i + 1);
+                }
+                writer.flush();
+                return out.count;
+            });
+        }
+    }
+
+    // Output stream that only counts the bytes written to it
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count = 0;
+
+        @Override
+        public void write(int b) {
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.count += len;
+        }
+    }
+
+    /* Run an operation repeatedly for one iteration, returning
+     * {operations, elapsed nanoseconds, bytes allocated}.
+     */
+    private static long[] runIteration(SudokuBenchmarkOperation operation)
+            throws Exception {
+
+        long threadId = Thread.currentThread().getId();
+        long startBytes = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        long endTime = startTime + ITERATION_NANOS;
+        long count = 0;
+        long now;
+        long result = 0;
+
+        do {
+            result += operation.run();
+            count++;
+            now = System.nanoTime();
+        } while (now < endTime);
+
+        long bytes = THREAD_BEAN.getThreadAllocatedBytes(threadId)
+                - startBytes;
+        sink += result;
+
+        return new long[] {count, now - startTime, bytes};
+    }
+
+    private void runAll(String filter) throws Exception {
+
+        System.out.printf("%-48s %14s %14s %14s %12s%n", "Benchmark",
+                "ops/s", "us/op", "B/op", "MB/s alloc");
+
+        for (int b = 0; b < this.operations.size(); b++) {
+
+            String name = this.names.get(b);
+
+            if (filter != null && !name.contains(filter)) {
+                continue;
+            }
+
+            SudokuBenchmarkOperation operation = this.operations.get(b);
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                runIteration(operation);
+            }
+
+            long count = 0;
+            long nanos = 0;
+            long bytes = 0;
+
+            for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+                long[] iteration = runIteration(operation);
+                count += iteration[0];
+                nanos += iteration[1];
+                bytes += iteration[2];
+            }
+
+            double seconds = nanos / 1e9;
+
+            System.out.printf("%-48s %14.1f %14.3f %14.0f %12.1f%n", name,
+                    count / seconds, nanos / 1e3 / count,
+                    (double) bytes / count, bytes / 1e6 / seconds);
+        }
+
+        System.out.println("\nAllocation is measured on the calling thread"
+                + " only, so it leaves out the pool threads of the"
+                + " multithreaded benchmarks.");
+    }
+
+    /* Usage: SudokuBenchmark [name filter]
+     * Run from the repository root so that bench/puzzles can be found.
+     */
+    public static void main(String[] args) throws Exception {
+
+        if (!Paths.get(PUZZLE_DIRECTORY).toFile().isDirectory()) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: Run the benchmarks from the repository"
+                    + " root so " + PUZZLE_DIRECTORY + " can be found.",
+                    true, 1);
+        }
+
+        SudokuBenchmark benchmark = new SudokuBenchmark();
+
+        for (String puzzleName : PUZZLE_NAMES) {
+            benchmark.addBenchmarks(puzzleName);
+        }
+
+        String filter = null;
+        if (args.length > 0) {
+            filter = args[0];
+        }
+
+        benchmark.runAll(filter);
+
+        System.exit(0);
+    }
+}
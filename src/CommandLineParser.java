@@ -9,13 +9,22 @@ package sudoku;
  * @version     1.0, 22/09/2016
  */
 public class CommandLineParser {
+    
+    // Flags that are not followed by a value
+    private static final String[] FLAGS_WITHOUT_VALUE = {"--count-only",
+                                                         "--batch",
+                                                         "--bit-sliced",
+                                                         "--verify",
+                                                         "--resume",
+                                                         "--grade"};
         
     public CommandLineParser() {}
     
-    public boolean checkMultithreading(String[] args) {
+    private boolean checkBooleanFlag(String[] args, String flag, 
+                                     String description) {
         
         for (int i = 0; i < args.length; i++) {
-            if (args[i].equals("-p") && i != args.length - 1) {
+            if (args[i].equals(flag) && i != args.length - 1) {
                 switch (args[i+1]) {
                     case "0":
                         return false;
@@ -23,9 +32,10 @@ public class CommandLineParser {
                         return true;
                     default:
                         ErrorHandler error = new ErrorHandler();
-                        error.printAndExit("Error: -p argument for"
-                                + " multithreading requires subsequent argument"
-                                + " of 0 for false or 1 for true.", true, 1);                                                                
+                        error.printAndExit("Error: " + flag + " argument for"
+                                + " " + description + " requires subsequent"
+                                + " argument of 0 for false or 1 for true.",
+                                true, 1);                                                                
                 }
             }
         } 
@@ -33,11 +43,446 @@ public class CommandLineParser {
         return false;
     }
     
-    public String getFilePath(String[] args) {
+    public boolean checkMultithreading(String[] args) {
+        return this.checkBooleanFlag(args, "-p", "multithreading");
+    }
+    
+    public boolean checkMinimumRemainingValues(String[] args) {
+        return this.checkBooleanFlag(args, "-m", "minimum remaining values"
+                + " cell ordering");
+    }
+    
+    public boolean checkConstraintPropagation(String[] args) {
+        return this.checkBooleanFlag(args, "-c", "constraint propagation");
+    }
+    
+    public boolean checkDancingLinks(String[] args) {
+        return this.checkBooleanFlag(args, "-x", "the exact cover (dancing"
+                + " links) solver");
+    }
+    
+    public int checkSplitDepth(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-s") && i != args.length - 1) {
+                try {
+                    int splitDepth = Integer.parseInt(args[i+1]);
+                    if (splitDepth >= 0) {
+                        return splitDepth;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: -s argument for split depth"
+                        + " requires subsequent argument of a whole number"
+                        + " of 0 or more.", true, 1);
+            }
+        }
+        
+        return SudokuSolveOptions.DEFAULT_SPLIT_DEPTH;
+    }
+    
+    public long checkMaxSolutions(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--max-solutions") && i != args.length - 1) {
+                try {
+                    long maxSolutions = Long.parseLong(args[i+1]);
+                    if (maxSolutions >= 1) {
+                        return maxSolutions;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --max-solutions argument requires"
+                        + " subsequent argument of a whole number of 1 or"
+                        + " more.", true, 1);
+            }
+        }
+        
+        return Long.MAX_VALUE;
+    }
+    
+    public long checkTimeLimit(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--time-limit") && i != args.length - 1) {
+                try {
+                    long timeLimit = Long.parseLong(args[i+1]);
+                    if (timeLimit >= 1) {
+                        return timeLimit;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --time-limit argument requires"
+                        + " subsequent argument of a whole number of"
+                        + " milliseconds of 1 or more.", true, 1);
+            }
+        }
+        
+        return SudokuSolutionBuffer.NO_TIME_LIMIT;
+    }
+    
+    // Puzzles whose results are cached, or 0 for no cache
+    public int checkCacheSize(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--cache") && i != args.length - 1) {
+                try {
+                    int cacheSize = Integer.parseInt(args[i+1]);
+                    if (cacheSize >= 1) {
+                        return cacheSize;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --cache argument requires"
+                        + " subsequent argument of a whole number of"
+                        + " puzzles of 1 or more.", true, 1);
+            }
+        }
+        
+        return 0;
+    }
+    
+    public SudokuOutputFormat checkOutputFormat(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-f") && i != args.length - 1) {
+                SudokuOutputFormat format 
+                        = SudokuOutputFormat.fromName(args[i+1]);
+                if (format == null) {
+                    ErrorHandler error = new ErrorHandler();
+                    error.printAndExit("Error: -f argument for output format"
+                            + " requires subsequent argument of pretty, line,"
+                            + " csv or binary.", true, 1);
+                }
+                return format;
+            }
+        }
+        
+        return SudokuOutputFormat.PRETTY;
+    }
+    
+    // Format to print search statistics in, or null not to print them
+    public SudokuStatsFormat checkStatsFormat(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--stats") && i != args.length - 1) {
+                SudokuStatsFormat format
+                        = SudokuStatsFormat.fromName(args[i+1]);
+                if (format == null) {
+                    ErrorHandler error = new ErrorHandler();
+                    error.printAndExit("Error: --stats argument requires"
+                            + " subsequent argument of text or json.", true,
+                            1);
+                }
+                return format;
+            }
+        }
+        
+        return null;
+    }
+    
+    // File to save the progress of the search to, or null not to save it
+    public String checkCheckpoint(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--checkpoint")) {
+                if (i == args.length - 1) {
+                    ErrorHandler error = new ErrorHandler();
+                    error.printAndExit("Error: --checkpoint argument requires"
+                            + " subsequent argument of a file path.", true, 1);
+                }
+                return args[i+1];
+            }
+        }
+        
+        return null;
+    }
+    
+    public long checkCheckpointInterval(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--checkpoint-interval") 
+                    && i != args.length - 1) {
+                try {
+                    long interval = Long.parseLong(args[i+1]);
+                    if (interval >= 1) {
+                        return interval;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --checkpoint-interval argument"
+                        + " requires subsequent argument of a whole number of"
+                        + " seconds of 1 or more.", true, 1);
+            }
+        }
+        
+        return SudokuSolveOptions.DEFAULT_CHECKPOINT_INTERVAL;
+    }
+    
+    // Worker processes to share the search between, or 0 for none
+    public int checkWorkerCount(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--workers") && i != args.length - 1) {
+                try {
+                    int workerCount = Integer.parseInt(args[i+1]);
+                    if (workerCount >= 1) {
+                        return workerCount;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --workers argument requires"
+                        + " subsequent argument of a whole number of"
+                        + " processes of 1 or more.", true, 1);
+            }
+        }
+        
+        return 0;
+    }
+    
+    /* Address of the coordinator to search shards for, as "host:port",
+     * or null if not running as a worker
+     */
+    public String checkWorker(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--worker")) {
+                if (i != args.length - 1) {
+                    String address = args[i+1];
+                    int colon = address.lastIndexOf(':');
+                    try {
+                        int port = Integer.parseInt(
+                                address.substring(colon + 1));
+                        if (colon > 0 && port >= 1 && port <= 65535) {
+                            return address;
+                        }
+                    }
+                    catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --worker argument requires"
+                        + " subsequent argument of the coordinator's address"
+                        + " as host:port.", true, 1);
+            }
+        }
+        
+        return null;
+    }
+    
+    // Number of puzzles to generate, or 0 if not generating puzzles
+    public long checkGenerate(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--generate") && i != args.length - 1) {
+                try {
+                    long puzzleCount = Long.parseLong(args[i+1]);
+                    if (puzzleCount >= 1) {
+                        return puzzleCount;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --generate argument requires"
+                        + " subsequent argument of a whole number of puzzles"
+                        + " of 1 or more.", true, 1);
+            }
+        }
+        
+        return 0;
+    }
+    
+    // Seed for generated puzzles, or a new one each run if not given
+    public long checkSeed(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--seed") && i != args.length - 1) {
+                try {
+                    return Long.parseLong(args[i+1]);
+                }
+                catch (NumberFormatException e) {
+                    ErrorHandler error = new ErrorHandler();
+                    error.printAndExit("Error: --seed argument requires"
+                            + " subsequent argument of a whole number.",
+                            true, 1);
+                }
+            }
+        }
+        
+        return System.nanoTime();
+    }
+    
+    // Most clues in a generated puzzle, or none to take away all that can go
+    public int checkClues(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--clues") && i != args.length - 1) {
+                try {
+                    int clues = Integer.parseInt(args[i+1]);
+                    if (clues >= SudokuPuzzleGenerator.MIN_CLUES
+                            && clues < SudokuGrid.CELL_COUNT) {
+                        return clues;
+                    }
+                }
+                catch (NumberFormatException e) {
+                    // Reported below
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --clues argument requires"
+                        + " subsequent argument of a whole number from "
+                        + SudokuPuzzleGenerator.MIN_CLUES + " to "
+                        + (SudokuGrid.CELL_COUNT - 1) + ".", true, 1);
+            }
+        }
+        
+        return SudokuPuzzleGenerator.NO_TARGET;
+    }
+    
+    // Difficulty of generated puzzles, or null for any
+    public SudokuDifficulty checkDifficulty(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--difficulty") && i != args.length - 1) {
+                SudokuDifficulty difficulty 
+                        = SudokuDifficulty.fromName(args[i+1]);
+                if (difficulty == null) {
+                    ErrorHandler error = new ErrorHandler();
+                    error.printAndExit("Error: --difficulty argument requires"
+                            + " subsequent argument of easy or hard.",
+                            true, 1);
+                }
+                return difficulty;
+            }
+        }
+        
+        return null;
+    }
+    
+    /* Address to run as a server on: a port number, or "unix:" followed
+     * by a socket path. Returns null if not running as a server.
+     */
+    public String checkServer(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--server")) {
+                if (i != args.length - 1) {
+                    String address = args[i+1];
+                    if (address.startsWith(SudokuServer.UNIX_SOCKET_PREFIX)
+                            && address.length() 
+                            > SudokuServer.UNIX_SOCKET_PREFIX.length()) {
+                        return address;
+                    }
+                    try {
+                        int port = Integer.parseInt(address);
+                        if (port >= 0 && port <= 65535) {
+                            return address;
+                        }
+                    }
+                    catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                }
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: --server argument requires"
+                        + " subsequent argument of a port number or unix:"
+                        + " followed by a socket path.", true, 1);
+            }
+        }
+        
+        return null;
+    }
+    
+    private boolean checkFlagPresent(String[] args, String flag) {
         
         for (String arg : args) {
-            if (arg.length() > 2) {
-                return arg;
+            if (arg.equals(flag)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    public boolean checkCountOnly(String[] args) {
+        return this.checkFlagPresent(args, "--count-only");
+    }
+    
+    public boolean checkBatch(String[] args) {
+        return this.checkFlagPresent(args, "--batch");
+    }
+    
+    public boolean checkBitSlicing(String[] args) {
+        return this.checkFlagPresent(args, "--bit-sliced");
+    }
+    
+    public boolean checkVerify(String[] args) {
+        return this.checkFlagPresent(args, "--verify");
+    }
+    
+    public boolean checkGrade(String[] args) {
+        return this.checkFlagPresent(args, "--grade");
+    }
+    
+    // Resuming needs to know which checkpoint file to carry on from
+    public boolean checkResume(String[] args) {
+        
+        boolean resume = this.checkFlagPresent(args, "--resume");
+        
+        if (resume && this.checkCheckpoint(args) == null) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: --resume requires --checkpoint followed"
+                    + " by the path of the checkpoint file to resume from.",
+                    true, 1);
+        }
+        
+        return resume;
+    }
+    
+    private boolean isFlagWithoutValue(String arg) {
+        
+        for (String flag : FLAGS_WITHOUT_VALUE) {
+            if (arg.equals(flag)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    public String getFilePath(String[] args) {
+        
+        for (int i = 0; i < args.length; i++) {
+            
+            // Skip flags and the value that follows each of them, but
+            // not "-" on its own, which stands for standard input
+            if (args[i].startsWith("-") && args[i].length() > 1) {
+                if (!this.isFlagWithoutValue(args[i])) {
+                    i++;
+                }
+            }
+            else {
+                return args[i];
             }
         }
         
@@ -47,4 +492,4 @@ public class CommandLineParser {
         
         return "";
     }  
-}
+}
\ No newline at end of file
@@ -1,11 +1,14 @@
 package sudoku;
 
 import java.io.File;
+import java.io.IOException;
+import javax.management.JMException;
 
 /**
  * Filename:    Sudoku.java
  * Purpose:     Implements an application that finds and prints
- *              all possible solutions to any 9x9 sudoku.
+ *              all possible solutions to any 4x4, 9x9, 16x16 or 25x25
+ *              sudoku.
  * 
  * @author      Andrew Blackwood
  * @version     1.0, 22/09/2016
@@ -15,17 +18,115 @@ public class Sudoku {
     public static void main(String[] args) {
                 
         CommandLineParser commandLineParser = new CommandLineParser();
-        boolean useMultithreading = commandLineParser.checkMultithreading(args);
+        SudokuSolveOptions options = new SudokuSolveOptions();
+        options.setUseMultithreading(
+                commandLineParser.checkMultithreading(args));
+        options.setUseMinimumRemainingValues(
+                commandLineParser.checkMinimumRemainingValues(args));
+        options.setUseConstraintPropagation(
+                commandLineParser.checkConstraintPropagation(args));
+        options.setUseDancingLinks(commandLineParser.checkDancingLinks(args));
+        options.setSplitDepth(commandLineParser.checkSplitDepth(args));
+        options.setMaxSolutions(commandLineParser.checkMaxSolutions(args));
+        options.setTimeLimitMillis(commandLineParser.checkTimeLimit(args));
+        options.setCountOnly(commandLineParser.checkCountOnly(args));
+        options.setOutputFormat(commandLineParser.checkOutputFormat(args));
+        options.setStatsFormat(commandLineParser.checkStatsFormat(args));
+        options.setUseBitSlicing(commandLineParser.checkBitSlicing(args));
+        options.setVerifying(commandLineParser.checkVerify(args));
+        options.setCheckpointPath(commandLineParser.checkCheckpoint(args));
+        options.setCheckpointIntervalSeconds(
+                commandLineParser.checkCheckpointInterval(args));
+        options.setResuming(commandLineParser.checkResume(args));
+        options.setWorkerCount(commandLineParser.checkWorkerCount(args));
+        options.setGrading(commandLineParser.checkGrade(args));
+        
+        // Worker processes started by --workers search shards until the
+        // coordinator has no more
+        String coordinatorAddress = commandLineParser.checkWorker(args);
+        if (coordinatorAddress != null) {
+            try {
+                new SudokuShardWorker().run(coordinatorAddress);
+            }
+            catch (IOException e) {
+                // The coordinator hands this worker's shards to another
+                System.exit(1);
+            }
+            System.exit(0);
+        }
+        
+        // Making new puzzles needs no sudoku file
+        long generateCount = commandLineParser.checkGenerate(args);
+        if (generateCount > 0) {
+            SudokuBatchGenerator generator = new SudokuBatchGenerator(
+                    commandLineParser.checkSeed(args),
+                    commandLineParser.checkClues(args),
+                    commandLineParser.checkDifficulty(args),
+                    options.getOutputFormat() == SudokuOutputFormat.LINE);
+            generator.generateToOutput(generateCount);
+            System.exit(0);
+        }
+        
+        int cacheSize = commandLineParser.checkCacheSize(args);
+        SudokuResultCache cache = null;
+        if (cacheSize > 0) {
+            cache = new SudokuResultCache(cacheSize);
+        }
+        
+        String serverAddress = commandLineParser.checkServer(args);
+        boolean batch = commandLineParser.checkBatch(args);
+        
+        // Long-running modes publish their search statistics over JMX
+        SudokuSolverMonitor monitor = new SudokuSolverMonitor();
+        if (serverAddress != null || batch) {
+            try {
+                monitor.register();
+            }
+            catch (JMException e) {
+                System.err.println("Warning: Could not publish search"
+                        + " statistics over JMX (" + e.getMessage() + ")");
+            }
+        }
+        
+        if (serverAddress != null) {
+            SudokuServer server = new SudokuServer(options, cache, monitor);
+            try {
+                server.serve(serverAddress);
+            }
+            catch (IOException e) {
+                ErrorHandler error = new ErrorHandler();
+                error.printAndExit("Error: Could not listen on " 
+                        + serverAddress + " (" + e.getMessage() + ")", true, 1);
+            }
+        }
+        
         String filePath = commandLineParser.getFilePath(args);
         
+        if (batch) {
+            SudokuBatchSolver batchSolver 
+                    = new SudokuBatchSolver(options, cache, monitor);
+            batchSolver.solveFile(filePath);
+            System.exit(0);
+        }
+        
         File sudokuFile = new File(filePath);
        
         SudokuFileParser sudokuFileParser = new SudokuFileParser(sudokuFile);
-        int[][] grid = sudokuFileParser.parseToGrid();
+        SudokuGrid grid = sudokuFileParser.parseToGrid();
         
         SudokuHandler sudokuHandler = new SudokuHandler(grid);
-        sudokuHandler.solve(useMultithreading);
-        sudokuHandler.printSolutions();
+        
+        if (options.isGrading()) {
+            sudokuHandler.grade(options);
+        }
+        else {
+            sudokuHandler.solve(options);
+            sudokuHandler.printSolutions();
+        }
+        
+        if (options.getStatsFormat() != null) {
+            sudokuHandler.printStats(options.getStatsFormat());
+        }
         
         System.exit(0);
     } 
@@ -0,0 +1,313 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuBacktrackingSolver.java
+ * Purpose:     Find the solutions to a sudoku grid by trying each legal value
+ *              in turn for one empty cell at a time, optionally choosing the
+ *              cell with fewest candidates and propagating deductions.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuBacktrackingSolver implements SudokuSolver {
+
+    private final boolean useMinimumRemainingValues;
+    private final boolean useConstraintPropagation;
+
+    private final SudokuGrid grid = new SudokuGrid();
+    private final boolean[] fixedCell = new boolean[SudokuGrid.CELL_COUNT];
+    private final SudokuCandidateMasks masks = new SudokuCandidateMasks();
+    private SudokuPropagator[] stateStack;
+    private int baseDepth;
+    private SudokuSolutionSink sink;
+
+    // Search counters since the grid was loaded, see SudokuSolverStats
+    private long nodeCount;
+    private long rejectedCount;
+    private long backtrackCount;
+    private long fillCount;
+    private int depth;
+    private int maxDepth;
+
+    public SudokuBacktrackingSolver(boolean useMinimumRemainingValues,
+                                    boolean useConstraintPropagation) {
+        this.useMinimumRemainingValues = useMinimumRemainingValues;
+        this.useConstraintPropagation = useConstraintPropagation;
+    }
+
+    /* Set up the solver state for a grid, running the first propagation
+     * pass if it is turned on. Returns false if the grid has no solution,
+     * including when two of its clues clash.
+     */
+    public boolean load(SudokuGrid startGrid) {
+
+        this.masks.clear();
+        this.baseDepth = 0;
+        this.grid.copyFrom(startGrid);
+
+        this.nodeCount = 0;
+        this.rejectedCount = 0;
+        this.backtrackCount = 0;
+        this.fillCount = 0;
+        this.depth = 0;
+        this.maxDepth = 0;
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            int val = startGrid.get(cell);
+            this.fixedCell[cell] = val != 0;
+            if (val != 0) {
+                if ((this.masks.getCandidates(cell) 
+                        & SudokuCandidateMasks.valueBit(val)) == 0) {
+                    return false;
+                }
+                this.masks.place(cell, val);
+            }
+        }
+
+        if (!this.useConstraintPropagation) {
+            return true;
+        }
+
+        // One propagation state for each level of the search tree
+        if (this.stateStack == null) {
+            this.stateStack = new SudokuPropagator[82];
+            for (int i = 0; i < this.stateStack.length; i++) {
+                this.stateStack[i] = new SudokuPropagator();
+            }
+        }
+
+        boolean consistent = this.stateStack[0].load(this.grid)
+                && this.stateStack[0].propagate();
+        this.fillCount += this.stateStack[0].getDeducedCount();
+
+        return consistent;
+    }
+
+    // Cells filled by the propagation pass in load()
+    public int getDeducedCount() {
+
+        if (!this.useConstraintPropagation) {
+            return 0;
+        }
+
+        return this.stateStack[0].getDeducedCount();
+    }
+
+    /* Fix a value in an empty cell of the loaded grid before solving, so
+     * that only the solutions with that value are searched. Returns false
+     * if the value is not legal there.
+     */
+    public boolean place(int cell, int val) {
+
+        if (this.useConstraintPropagation) {
+            SudokuPropagator state = this.stateStack[this.baseDepth + 1];
+            state.copyFrom(this.stateStack[this.baseDepth]);
+            boolean consistent = state.assign(cell, val) && state.propagate();
+            this.fillCount += state.getDeducedCount()
+                    - this.stateStack[this.baseDepth].getDeducedCount();
+            if (!consistent) {
+                return false;
+            }
+            this.baseDepth++;
+            this.depth++;
+            return true;
+        }
+
+        if ((this.masks.getCandidates(cell)
+                & SudokuCandidateMasks.valueBit(val)) == 0) {
+            return false;
+        }
+
+        this.grid.set(cell, val);
+        this.fixedCell[cell] = true;
+        this.masks.place(cell, val);
+        this.depth++;
+
+        return true;
+    }
+
+    /* The next cell the search will branch on, or -1 if the grid has no
+     * empty cells left.
+     */
+    public int getBranchCell() {
+
+        if (this.useConstraintPropagation) {
+            return this.getPropagatorCell(this.stateStack[this.baseDepth]);
+        }
+
+        if (this.useMinimumRemainingValues) {
+            return this.masks.getBestEmptyCell(this.grid);
+        }
+
+        return SudokuCandidateMasks.getFirstEmptyCell(this.grid);
+    }
+
+    // Mask of the values that can still go in an empty cell
+    public int getCandidates(int cell) {
+
+        if (this.useConstraintPropagation) {
+            return this.stateStack[this.baseDepth].getCandidates(cell);
+        }
+
+        return this.masks.getCandidates(cell);
+    }
+
+    @Override
+    public void addStatsTo(SudokuSolverStats stats) {
+        stats.addCounts(this.nodeCount, this.rejectedCount,
+                        this.backtrackCount, this.fillCount, this.maxDepth);
+    }
+
+    @Override
+    public void solveAll(SudokuGrid startGrid, SudokuSolutionSink sink) {
+        if (this.load(startGrid)) {
+            this.solve(sink);
+        }
+    }
+
+    // Find all solutions of the grid given to load() and place()
+    public void solve(SudokuSolutionSink sink) {
+
+        this.sink = sink;
+
+        if (this.useConstraintPropagation) {
+            this.solveWithPropagation(this.baseDepth);
+        }
+        else if (this.useMinimumRemainingValues) {
+            this.solveFromBestCell();
+        }
+        else {
+            this.solveFromCell(0);
+        }
+    }
+
+    /* Count a node about to branch on a cell with the given candidates,
+     * returning the candidates.
+     */
+    private int countNode(int candidates) {
+
+        this.nodeCount++;
+        this.maxDepth = Math.max(this.maxDepth, this.depth);
+        this.rejectedCount += 9 - Integer.bitCount(candidates);
+
+        if (candidates == 0) {
+            this.backtrackCount++;
+        }
+
+        return candidates;
+    }
+
+    private int getPropagatorCell(SudokuPropagator state) {
+
+        if (this.useMinimumRemainingValues) {
+            return state.getBestEmptyCell();
+        }
+
+        return state.getFirstEmptyCell();
+    }
+
+    private void solveFromCell(int cell) {
+
+        if (cell == SudokuGrid.CELL_COUNT) {
+            this.sink.addSolution(this.grid);
+            return;
+        }
+
+        if (this.fixedCell[cell]) {
+            this.solveFromCell(cell + 1);
+            return;
+        }
+
+        int candidates = this.countNode(this.masks.getCandidates(cell));
+
+        while (candidates != 0 && !this.sink.isStopped()) {
+
+            int bit = candidates & -candidates;
+            int val = SudokuCandidateMasks.bitValue(bit);
+            candidates ^= bit;
+
+            this.grid.set(cell, val);
+            this.masks.place(cell, val);
+
+            this.depth++;
+            this.solveFromCell(cell + 1);
+            this.depth--;
+
+            this.masks.remove(cell, val);
+        }
+
+        this.grid.set(cell, 0);
+    }
+
+    // Solve by always branching on the empty cell with fewest candidates
+    private void solveFromBestCell() {
+
+        int cell = this.masks.getBestEmptyCell(this.grid);
+
+        if (cell == -1) {
+            this.sink.addSolution(this.grid);
+            return;
+        }
+
+        int candidates = this.countNode(this.masks.getCandidates(cell));
+
+        while (candidates != 0 && !this.sink.isStopped()) {
+
+            int bit = candidates & -candidates;
+            int val = SudokuCandidateMasks.bitValue(bit);
+            candidates ^= bit;
+
+            this.grid.set(cell, val);
+            this.masks.place(cell, val);
+
+            this.depth++;
+            this.solveFromBestCell();
+            this.depth--;
+
+            this.masks.remove(cell, val);
+        }
+
+        this.grid.set(cell, 0);
+    }
+
+    // Solve by propagating deductions after every value that is tried
+    private void solveWithPropagation(int depth) {
+
+        SudokuPropagator state = this.stateStack[depth];
+        int cell = this.getPropagatorCell(state);
+
+        if (cell == -1) {
+            state.copyToGrid(this.grid);
+            this.sink.addSolution(this.grid);
+            return;
+        }
+
+        SudokuPropagator nextState = this.stateStack[depth + 1];
+        int candidates = this.countNode(state.getCandidates(cell));
+
+        while (candidates != 0 && !this.sink.isStopped()) {
+
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+
+            nextState.copyFrom(state);
+
+            boolean consistent = nextState.assign(cell,
+                    SudokuCandidateMasks.bitValue(bit))
+                    && nextState.propagate();
+
+            this.fillCount += nextState.getDeducedCount()
+                    - state.getDeducedCount();
+
+            if (consistent) {
+                this.depth++;
+                this.solveWithPropagation(depth + 1);
+                this.depth--;
+            }
+            else {
+                this.rejectedCount++;
+                this.backtrackCount++;
+            }
+        }
+    }
+}
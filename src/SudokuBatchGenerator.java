@@ -0,0 +1,184 @@
+package sudoku;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filename:    SudokuBatchGenerator.java
+ * Purpose:     Make a number of new puzzles in parallel on a pool of threads
+ *              with SudokuPuzzleGenerator, writing them in order as they are
+ *              made, either one line of 81 characters per puzzle or as
+ *              blocks of comma-separated rows in the sudoku file format.
+ *              The same seed always gives the same puzzles, however many
+ *              threads make them.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuBatchGenerator {
+
+    // Puzzles made by each task, enough to outweigh handing out the task
+    private static final int PUZZLES_PER_TASK = 16;
+
+    // Tasks made ahead of the writer for each thread in the pool
+    private static final int PENDING_PER_THREAD = 8;
+
+    private final long seed;
+    private final boolean writingLines;
+    private final ThreadLocal<SudokuPuzzleGenerator> generators;
+
+    // Full grids filled in by every thread
+    private final AtomicLong gridCount = new AtomicLong();
+
+    /* Puzzles are written one per line with '.' for each empty square if
+     * writingLines is true, and otherwise in the sudoku file format with a
+     * blank line after each. See SudokuPuzzleGenerator for targetClues and
+     * difficulty.
+     */
+    public SudokuBatchGenerator(long seed, int targetClues,
+                                SudokuDifficulty difficulty,
+                                boolean writingLines) {
+
+        this.seed = seed;
+        this.writingLines = writingLines;
+
+        // Give each worker thread a generator of its own
+        this.generators = ThreadLocal.withInitial(
+                () -> new SudokuPuzzleGenerator(seed, targetClues,
+                                                difficulty));
+    }
+
+    // Write puzzles to standard output, then how long they took to stderr
+    public void generateToOutput(long puzzleCount) {
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.US_ASCII),
+                1 << 16);
+
+        try {
+            long startTime = System.nanoTime();
+            this.generateAll(puzzleCount, writer);
+            long elapsedTime = System.nanoTime() - startTime;
+
+            this.printStats(puzzleCount, elapsedTime);
+        }
+        catch (IOException e) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: Could not write puzzles ("
+                    + e.getMessage() + ")", true, 1);
+        }
+    }
+
+    public void generateAll(long puzzleCount, Writer writer)
+            throws IOException {
+
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        int maxPending = threadCount * PENDING_PER_THREAD;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+
+        try {
+            for (long first = 0; first < puzzleCount;
+                    first += PUZZLES_PER_TASK) {
+
+                long start = first;
+                long end = Math.min(puzzleCount, first + PUZZLES_PER_TASK);
+                pending.add(executor.submit(
+                        () -> this.generatePuzzles(start, end)));
+
+                // Write finished puzzles in order so memory stays bounded
+                while (pending.size() >= maxPending
+                        || (!pending.isEmpty() && pending.peek().isDone())) {
+                    this.writePuzzles(pending.poll(), writer);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                this.writePuzzles(pending.poll(), writer);
+            }
+
+            writer.flush();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Text of the puzzles numbered from start up to but not including end
+    private String generatePuzzles(long start, long end) {
+
+        SudokuPuzzleGenerator generator = this.generators.get();
+        long gridsBefore = generator.getGridCount();
+        StringBuilder text = new StringBuilder((int) (end - start) * 200);
+
+        for (long index = start; index < end; index++) {
+            this.appendPuzzle(generator.generate(index), text);
+        }
+
+        this.gridCount.addAndGet(generator.getGridCount() - gridsBefore);
+
+        return text.toString();
+    }
+
+    private void appendPuzzle(SudokuGrid puzzle, StringBuilder text) {
+
+        if (this.writingLines) {
+            for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+                int val = puzzle.get(cell);
+                text.append(val == 0 ? '.' : (char) ('0' + val));
+            }
+            text.append('\n');
+            return;
+        }
+
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (col > 0) {
+                    text.append(',');
+                }
+                int val = puzzle.get(row, col);
+                if (val != 0) {
+                    text.append((char) ('0' + val));
+                }
+            }
+            text.append('\n');
+        }
+
+        text.append('\n');
+    }
+
+    private void writePuzzles(Future<String> puzzles, Writer writer)
+            throws IOException {
+
+        try {
+            writer.write(puzzles.get());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while making puzzles", e);
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Failed to make puzzle", e.getCause());
+        }
+    }
+
+    private void printStats(long puzzleCount, long elapsedTime) {
+
+        double seconds = elapsedTime / 1e9;
+
+        System.err.printf("Generated %d puzzles in %.3f s, %.1f puzzles per"
+                + " second, from %d full grids.%n", puzzleCount, seconds,
+                puzzleCount / seconds, this.gridCount.get());
+        System.err.println("Seed: " + this.seed + " (give --seed "
+                + this.seed + " to make the same puzzles again)");
+    }
+}
@@ -0,0 +1,523 @@
+package sudoku;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filename:    SudokuBatchSolver.java
+ * Purpose:     Solve a stream of sudoku puzzles in parallel on a pool of
+ *              threads, writing one result line per puzzle in input order.
+ *              Optionally fills singles in blocks of puzzles together with
+ *              SudokuBitSlicedSolver, and checks every result against the
+ *              exact cover solver. Can grade each puzzle with SudokuGrader
+ *              instead of solving it.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuBatchSolver {
+
+    // Puzzles read ahead of the writer for each thread in the pool
+    private static final int PENDING_PER_THREAD = 64;
+
+    private final SudokuSolveOptions options;
+    private final ThreadLocal<SudokuSolver> workerSolvers;
+    private final ThreadLocal<SudokuBitSlicedSolver> bitSlicedSolvers
+            = ThreadLocal.withInitial(SudokuBitSlicedSolver::new);
+
+    // Solvers that share no code with the others, to check results against
+    private final ThreadLocal<SudokuSolver> referenceSolvers
+            = ThreadLocal.withInitial(SudokuDancingLinksSolver::new);
+
+    // Graders that do not trace their steps, and the totals of their work
+    private final ThreadLocal<SudokuGrader> graders
+            = ThreadLocal.withInitial(() -> new SudokuGrader(false));
+    private final SudokuGradingStats gradingStats = new SudokuGradingStats();
+
+    // Results of earlier puzzles, or null to always search
+    private final SudokuResultCache cache;
+
+    // Totals of every puzzle's search statistics
+    private final SudokuSolverMonitor monitor;
+
+    private long puzzleCount = 0;
+    private long errorCount = 0;
+    private final AtomicLong verifiedCount = new AtomicLong();
+    private final AtomicLong mismatchCount = new AtomicLong();
+
+    public SudokuBatchSolver(SudokuSolveOptions options) {
+        this(options, null);
+    }
+
+    public SudokuBatchSolver(SudokuSolveOptions options,
+                             SudokuResultCache cache) {
+        this(options, cache, new SudokuSolverMonitor());
+    }
+
+    public SudokuBatchSolver(SudokuSolveOptions options,
+                             SudokuResultCache cache,
+                             SudokuSolverMonitor monitor) {
+
+        this.options = options;
+        this.cache = cache;
+        this.monitor = monitor;
+
+        // Give each worker thread a solver of its own
+        this.workerSolvers = ThreadLocal.withInitial(() -> {
+            if (options.isUsingDancingLinks()) {
+                return new SudokuDancingLinksSolver();
+            }
+            return new SudokuBacktrackingSolver(
+                    options.isUsingMinimumRemainingValues(),
+                    options.isUsingConstraintPropagation());
+        });
+    }
+
+    // Solve every puzzle in a file, or in standard input if the path is "-"
+    public void solveFile(String filePath) {
+
+        try {
+            ReadableByteChannel channel;
+            if (filePath.equals("-")) {
+                channel = Channels.newChannel(System.in);
+            }
+            else {
+                channel = FileChannel.open(Paths.get(filePath));
+            }
+
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(System.out, StandardCharsets.US_ASCII),
+                    1 << 16);
+
+            long startTime = System.nanoTime();
+            this.solveAll(channel, writer);
+            long elapsedTime = System.nanoTime() - startTime;
+
+            channel.close();
+            this.printStats(elapsedTime);
+        }
+        catch (IOException e) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: Could not read puzzles from "
+                    + filePath + " (" + e.getMessage() + ")", true, 1);
+        }
+    }
+
+    public void solveAll(ReadableByteChannel channel, Writer writer)
+            throws IOException {
+
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        int maxPending = threadCount * PENDING_PER_THREAD;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        SudokuStreamParser parser = new SudokuStreamParser(channel);
+
+        // Puzzles waiting to be solved together, with an error instead of
+        // a grid for each one that could not be read
+        boolean usingBlocks = this.options.isUsingBitSlicing()
+                && !this.options.isGrading();
+        SudokuGrid[] blockGrids = null;
+        String[] blockErrors = null;
+        int blockSize = 0;
+
+        if (usingBlocks) {
+            maxPending = Math.max(2 * threadCount,
+                    maxPending / SudokuBitSlicedSolver.LANES);
+        }
+
+        try {
+            while (parser.readNext()) {
+
+                this.puzzleCount++;
+
+                SudokuGrid grid = null;
+                String error = null;
+
+                if (!parser.isValid()) {
+                    this.errorCount++;
+                    error = parser.getError();
+                }
+                else {
+                    grid = new SudokuGrid();
+                    parser.copyGrid(grid);
+                }
+
+                if (!usingBlocks) {
+                    pending.add(this.submitPuzzle(executor, grid, error));
+                }
+                else {
+                    if (blockSize == 0) {
+                        blockGrids = new SudokuGrid[
+                                SudokuBitSlicedSolver.LANES];
+                        blockErrors = new String[SudokuBitSlicedSolver.LANES];
+                    }
+                    blockGrids[blockSize] = grid;
+                    blockErrors[blockSize] = error;
+                    blockSize++;
+                    if (blockSize == SudokuBitSlicedSolver.LANES) {
+                        pending.add(this.submitBlock(executor, blockGrids,
+                                                     blockErrors, blockSize));
+                        blockSize = 0;
+                    }
+                }
+
+                // Write finished results in order so memory stays bounded
+                while (pending.size() >= maxPending
+                        || (!pending.isEmpty() && pending.peek().isDone())) {
+                    this.writeResult(pending.poll(), writer);
+                }
+            }
+
+            if (blockSize > 0) {
+                pending.add(this.submitBlock(executor, blockGrids,
+                                             blockErrors, blockSize));
+            }
+
+            while (!pending.isEmpty()) {
+                this.writeResult(pending.poll(), writer);
+            }
+
+            writer.flush();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Future<String> submitPuzzle(ExecutorService executor,
+                                        SudokuGrid grid, String error) {
+
+        if (error != null) {
+            return executor.submit(() -> error);
+        }
+
+        if (this.options.isGrading()) {
+            return executor.submit(() -> this.gradePuzzle(grid));
+        }
+
+        return executor.submit(() -> this.solvePuzzle(grid));
+    }
+
+    private Future<String> submitBlock(ExecutorService executor,
+                                       SudokuGrid[] grids, String[] errors,
+                                       int size) {
+        return executor.submit(() -> this.solveBlock(grids, errors, size));
+    }
+
+    private void writeResult(Future<String> result, Writer writer)
+            throws IOException {
+
+        try {
+            writer.write(result.get());
+            writer.write('\n');
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving puzzles", e);
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Failed to solve puzzle", e.getCause());
+        }
+    }
+
+    /* Result line for a puzzle: the puzzle, its number of solutions
+     * (followed by '+' if the search stopped at the maximum or '?' if it
+     * stopped at the time limit) and each solution kept, all as 81-digit
+     * strings separated by spaces.
+     */
+    private String solvePuzzle(SudokuGrid grid) {
+
+        SudokuSolutionBuffer buffer = this.newBuffer();
+        SudokuSolverStats stats = new SudokuSolverStats();
+
+        if (this.cache == null) {
+            this.search(grid, buffer, stats);
+        }
+        else {
+            SudokuResultCache.Key key = this.cache.getKey(grid);
+            if (!this.cache.lookup(key, buffer)) {
+                this.search(grid, buffer, stats);
+                this.cache.store(key, buffer);
+            }
+        }
+
+        stats.countSolve();
+        this.monitor.record(stats);
+
+        return this.getResultLine(grid, buffer);
+    }
+
+    /* Result line for a puzzle when grading: the puzzle, its rating, the
+     * hardest technique it needed ("none" if it needed none, or
+     * "no-solution"), then each technique used with its number of steps,
+     * as in "hidden-single:40", all separated by spaces.
+     */
+    private String gradePuzzle(SudokuGrid grid) {
+
+        SudokuGrade grade = this.graders.get().grade(grid);
+        StringBuilder line = new StringBuilder(200);
+
+        grid.appendDigits(line);
+        line.append(String.format(" %.1f ", grade.getRating()));
+
+        if (!grade.isSolved()) {
+            line.append("no-solution");
+        }
+        else if (grade.getHardestTechnique() == null) {
+            line.append("none");
+        }
+        else {
+            line.append(grade.getHardestTechnique().getKey());
+        }
+
+        for (SudokuTechnique technique : SudokuTechnique.values()) {
+            long stepCount = grade.getStats().getStepCount(technique);
+            if (stepCount > 0) {
+                line.append(' ').append(technique.getKey()).append(':')
+                    .append(stepCount);
+            }
+        }
+
+        synchronized (this.gradingStats) {
+            this.gradingStats.addAll(grade.getStats());
+        }
+
+        return line.toString();
+    }
+
+    private SudokuSolutionBuffer newBuffer() {
+        return new SudokuSolutionBuffer(!this.options.isCountOnly(),
+                this.options.getMaxSolutions(),
+                this.options.getTimeLimitMillis());
+    }
+
+    /* Result lines for a block of puzzles, separated by newlines. Puzzles
+     * that filling singles solves or rules out are answered straight
+     * away, and the rest are searched one at a time.
+     */
+    private String solveBlock(SudokuGrid[] grids, String[] errors,
+                              int size) {
+
+        SudokuGrid[] puzzles = new SudokuGrid[size];
+        int[] lanes = new int[size];
+        int laneCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (errors[i] == null) {
+                lanes[i] = laneCount;
+                puzzles[laneCount++] = grids[i];
+            }
+        }
+
+        SudokuBitSlicedSolver solver = this.bitSlicedSolvers.get();
+        long startTime = System.nanoTime();
+
+        solver.solve(puzzles, laneCount);
+
+        SudokuSolverStats stats = new SudokuSolverStats();
+        stats.addWorkerTime(Thread.currentThread().getName(),
+                            System.nanoTime() - startTime, 0);
+
+        StringBuilder lines = new StringBuilder(size * 82 * 3);
+        SudokuGrid solution = new SudokuGrid();
+
+        for (int i = 0; i < size; i++) {
+
+            if (i > 0) {
+                lines.append('\n');
+            }
+
+            if (errors[i] != null) {
+                lines.append(errors[i]);
+                continue;
+            }
+
+            long laneBit = 1L << lanes[i];
+
+            if (((solver.getSolvedLanes() | solver.getDeadLanes())
+                    & laneBit) == 0) {
+                lines.append(this.solvePuzzle(grids[i]));
+                continue;
+            }
+
+            SudokuSolutionBuffer buffer = this.newBuffer();
+
+            if ((solver.getSolvedLanes() & laneBit) != 0) {
+                solver.copySolution(lanes[i], solution);
+                buffer.addSolution(solution);
+            }
+
+            stats.countSolve();
+            lines.append(this.getResultLine(grids[i], buffer));
+        }
+
+        this.monitor.record(stats);
+
+        return lines.toString();
+    }
+
+    /* Result line for a puzzle once solved, checking the result first if
+     * asked to
+     */
+    private String getResultLine(SudokuGrid grid,
+                                 SudokuSolutionBuffer buffer) {
+
+        if (this.options.isVerifying()) {
+            this.verify(grid, buffer);
+        }
+
+        StringBuilder line = new StringBuilder(82 * 3);
+
+        grid.appendDigits(line);
+        line.append(' ').append(buffer.getCount());
+
+        if (buffer.isTimedOut()) {
+            line.append('?');
+        }
+        else if (buffer.reachedMaxSolutions()) {
+            line.append('+');
+        }
+
+        SudokuGrid solution = new SudokuGrid();
+
+        for (long i = 0; i < buffer.getStoredCount(); i++) {
+            buffer.copySolution(i, solution);
+            line.append(' ');
+            solution.appendDigits(line);
+        }
+
+        return line.toString();
+    }
+
+    private void search(SudokuGrid grid, SudokuSolutionBuffer buffer,
+                        SudokuSolverStats stats) {
+
+        SudokuSolver solver = this.workerSolvers.get();
+        long startTime = System.nanoTime();
+
+        solver.solveAll(grid, buffer);
+
+        long elapsedTime = System.nanoTime() - startTime;
+
+        solver.addStatsTo(stats);
+        stats.addWorkerTime(Thread.currentThread().getName(), elapsedTime,
+                            stats.getNodeCount());
+    }
+
+    /* Solve a puzzle again with the exact cover solver, reporting
+     * it if the number of solutions or the solutions kept differ. Results
+     * cut short by the time limit are not checked.
+     */
+    private void verify(SudokuGrid grid, SudokuSolutionBuffer buffer) {
+
+        if (buffer.isCancelled()) {
+            return;
+        }
+
+        SudokuSolutionBuffer expected = new SudokuSolutionBuffer(
+                buffer.isStoringSolutions(), buffer.getMaxSolutions());
+
+        this.referenceSolvers.get().solveAll(grid, expected);
+
+        boolean same = expected.getCount() == buffer.getCount();
+
+        // Stopping at a maximum may keep a different choice of solutions
+        if (same && !buffer.reachedMaxSolutions()) {
+            same = Arrays.equals(getSortedSolutions(expected),
+                                 getSortedSolutions(buffer));
+        }
+
+        this.verifiedCount.incrementAndGet();
+
+        if (!same) {
+            this.mismatchCount.incrementAndGet();
+            StringBuilder puzzle = new StringBuilder(81);
+            grid.appendDigits(puzzle);
+            System.err.println("Error: Result for " + puzzle + " differs"
+                    + " from the exact cover solver");
+        }
+    }
+
+    private static String[] getSortedSolutions(SudokuSolutionBuffer buffer) {
+
+        String[] solutions = new String[(int) buffer.getStoredCount()];
+        SudokuGrid solution = new SudokuGrid();
+
+        for (int i = 0; i < solutions.length; i++) {
+            StringBuilder text = new StringBuilder(81);
+            buffer.copySolution(i, solution);
+            solution.appendDigits(text);
+            solutions[i] = text.toString();
+        }
+
+        Arrays.sort(solutions);
+
+        return solutions;
+    }
+
+    private void printStats(long elapsedTime) {
+
+        double seconds = elapsedTime / 1e9;
+
+        if (this.options.isGrading()) {
+            this.printGradingStats(seconds);
+            return;
+        }
+
+        System.err.printf("Solved %d puzzles (%d with errors) in %.3f s,"
+                + " %.1f puzzles per second.%n", this.puzzleCount,
+                this.errorCount, seconds, this.puzzleCount / seconds);
+
+        if (this.cache != null) {
+            System.err.printf("Answered %d puzzles from the cache.%n",
+                              this.cache.getHitCount());
+        }
+
+        if (this.options.isVerifying()) {
+            System.err.printf("Checked %d puzzles against the exact cover"
+                    + " solver: %d differed.%n",
+                    this.verifiedCount.get(), this.mismatchCount.get());
+        }
+
+        SudokuStatsFormat format = this.options.getStatsFormat();
+
+        if (format == SudokuStatsFormat.JSON) {
+            System.err.println(this.monitor.getJson());
+        }
+        else if (format == SudokuStatsFormat.TEXT) {
+            System.err.print(this.monitor.getStats().toText());
+        }
+    }
+
+    private void printGradingStats(double seconds) {
+
+        System.err.printf("Graded %d puzzles (%d with errors) in %.3f s,"
+                + " %.1f puzzles per second.%n", this.puzzleCount,
+                this.errorCount, seconds, this.puzzleCount / seconds);
+
+        SudokuStatsFormat format = this.options.getStatsFormat();
+
+        synchronized (this.gradingStats) {
+            if (format == SudokuStatsFormat.JSON) {
+                System.err.println(this.gradingStats.toJson());
+            }
+            else if (format == SudokuStatsFormat.TEXT) {
+                System.err.print(this.gradingStats.toText());
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuBitSlicedSolver.java
+ * Purpose:     Fill naked and hidden singles in up to 64 9x9 puzzles at
+ *              once. Candidates are stored bit-sliced: one long for each
+ *              cell and value, with bit l set when the value is still
+ *              possible in the puzzle in lane l, so every step of the
+ *              deduction works on all the puzzles with one operation.
+ *              Puzzles that need guessing are left to a scalar solver. Not
+ *              safe to share between threads.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuBitSlicedSolver {
+
+    // Puzzles solved together, one per bit of a long
+    public static final int LANES = 64;
+
+    // Lanes in which value v + 1 can go in cell c, at index 9 * c + v
+    private final long[] candidates = new long[SudokuGrid.CELL_COUNT * 9];
+
+    // Lanes in which each cell's value has been removed from its peers
+    private final long[] eliminated = new long[SudokuGrid.CELL_COUNT];
+
+    private long usedLanes;
+    private long deadLanes;
+    private long solvedLanes;
+
+    public SudokuBitSlicedSolver() {}
+
+    /* Load the first count puzzles of an array into lanes 0 to count - 1
+     * and fill every single they lead to.
+     */
+    public void solve(SudokuGrid[] puzzles, int count) {
+        this.load(puzzles, count);
+        this.propagate();
+    }
+
+    private void load(SudokuGrid[] puzzles, int count) {
+
+        this.usedLanes = count == LANES ? -1L : (1L << count) - 1;
+        this.deadLanes = 0;
+
+        for (int i = 0; i < this.candidates.length; i++) {
+            this.candidates[i] = this.usedLanes;
+        }
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            this.eliminated[cell] = 0;
+        }
+
+        for (int lane = 0; lane < count; lane++) {
+
+            long laneBit = 1L << lane;
+            SudokuGrid puzzle = puzzles[lane];
+
+            for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+                int val = puzzle.get(cell);
+                if (val != 0) {
+                    for (int v = 0; v < 9; v++) {
+                        if (v != val - 1) {
+                            this.candidates[9 * cell + v] &= ~laneBit;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /* Remove the value of every solved cell from its peers and give every
+     * value with one place left in a unit that place, until neither
+     * changes anything in any lane. A lane with a cell or a unit value
+     * left without candidates has no solution.
+     */
+    private void propagate() {
+
+        long[] candidates = this.candidates;
+        boolean changed = true;
+
+        while (changed) {
+
+            changed = false;
+
+            // Naked singles
+            for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+
+                int base = 9 * cell;
+                long once = 0;
+                long twice = 0;
+
+                for (int v = 0; v < 9; v++) {
+                    long lanes = candidates[base + v];
+                    twice |= once & lanes;
+                    once |= lanes;
+                }
+
+                this.deadLanes |= ~once;
+
+                long single = once & ~twice & ~this.eliminated[cell];
+
+                if (single == 0) {
+                    continue;
+                }
+
+                this.eliminated[cell] |= single;
+
+                for (int v = 0; v < 9; v++) {
+
+                    long fixed = candidates[base + v] & single;
+
+                    if (fixed == 0) {
+                        continue;
+                    }
+
+                    for (int peer : SudokuPropagator.PEERS[cell]) {
+                        long lanes = candidates[9 * peer + v];
+                        if ((lanes & fixed) != 0) {
+                            candidates[9 * peer + v] = lanes & ~fixed;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+
+            // Hidden singles
+            for (int[] unit : SudokuPropagator.UNITS) {
+                for (int v = 0; v < 9; v++) {
+
+                    long once = 0;
+                    long twice = 0;
+
+                    for (int cell : unit) {
+                        long lanes = candidates[9 * cell + v];
+                        twice |= once & lanes;
+                        once |= lanes;
+                    }
+
+                    this.deadLanes |= ~once;
+
+                    long hidden = once & ~twice;
+
+                    if (hidden == 0) {
+                        continue;
+                    }
+
+                    for (int cell : unit) {
+
+                        // Lanes where the cell is solved already need nothing
+                        long fixed = candidates[9 * cell + v] & hidden
+                                & ~this.eliminated[cell];
+
+                        if (fixed == 0) {
+                            continue;
+                        }
+
+                        for (int w = 0; w < 9; w++) {
+                            long lanes = candidates[9 * cell + w];
+                            if (w != v && (lanes & fixed) != 0) {
+                                candidates[9 * cell + w] = lanes & ~fixed;
+                                changed = true;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // Lanes with no solution need no more work
+            if ((this.deadLanes & this.usedLanes) == this.usedLanes) {
+                break;
+            }
+        }
+
+        this.deadLanes &= this.usedLanes;
+
+        long solved = this.usedLanes & ~this.deadLanes;
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            solved &= this.eliminated[cell];
+        }
+
+        this.solvedLanes = solved;
+    }
+
+    // Lanes whose puzzle was found to have no solution
+    public long getDeadLanes() {
+        return this.deadLanes;
+    }
+
+    // Lanes whose puzzle was solved without guessing, so has one solution
+    public long getSolvedLanes() {
+        return this.solvedLanes;
+    }
+
+    // Copy the solution of a lane in getSolvedLanes() into a grid
+    public void copySolution(int lane, SudokuGrid grid) {
+
+        long laneBit = 1L << lane;
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            for (int v = 0; v < 9; v++) {
+                if ((this.candidates[9 * cell + v] & laneBit) != 0) {
+                    grid.set(cell, v + 1);
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuCandidateMasks.java
+ * Purpose:     Keep track of the values used in each row, column and box of
+ *              a sudoku grid as 9-bit masks, so that the legal candidates
+ *              for a cell can be found without rescanning the grid.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuCandidateMasks {
+
+    // Mask with one bit set for each of the values 1 to 9
+    public static final int ALL_VALUES = 0x1FF;
+
+    // Row, column and box of each cell numbered row by row from 0 to 80
+    private static final int[] CELL_ROWS = new int[SudokuGrid.CELL_COUNT];
+    private static final int[] CELL_COLS = new int[SudokuGrid.CELL_COUNT];
+    private static final int[] CELL_BOXES = new int[SudokuGrid.CELL_COUNT];
+
+    static {
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            CELL_ROWS[cell] = cell / 9;
+            CELL_COLS[cell] = cell % 9;
+            CELL_BOXES[cell] = boxIndex(cell / 9, cell % 9);
+        }
+    }
+
+    private final int[] rowMasks = new int[9];
+    private final int[] colMasks = new int[9];
+    private final int[] boxMasks = new int[9];
+
+    public SudokuCandidateMasks() {}
+
+    public SudokuCandidateMasks(SudokuGrid grid) {
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            if (grid.get(cell) != 0) {
+                this.place(cell, grid.get(cell));
+            }
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < 9; i++) {
+            this.rowMasks[i] = 0;
+            this.colMasks[i] = 0;
+            this.boxMasks[i] = 0;
+        }
+    }
+
+    public static int boxIndex(int row, int col) {
+        return 3 * (row / 3) + col / 3;
+    }
+
+    public static int valueBit(int val) {
+        return 1 << (val - 1);
+    }
+
+    public static int bitValue(int bit) {
+        return Integer.numberOfTrailingZeros(bit) + 1;
+    }
+
+    // Bit i of the returned mask is set if value i+1 can go in the cell
+    public int getCandidates(int row, int col) {
+        return ~(this.rowMasks[row] | this.colMasks[col]
+                | this.boxMasks[boxIndex(row, col)]) & ALL_VALUES;
+    }
+
+    public int getCandidates(int cell) {
+        return ~(this.rowMasks[CELL_ROWS[cell]] | this.colMasks[CELL_COLS[cell]]
+                | this.boxMasks[CELL_BOXES[cell]]) & ALL_VALUES;
+    }
+
+    public void place(int cell, int val) {
+
+        int bit = valueBit(val);
+
+        this.rowMasks[CELL_ROWS[cell]] |= bit;
+        this.colMasks[CELL_COLS[cell]] |= bit;
+        this.boxMasks[CELL_BOXES[cell]] |= bit;
+    }
+
+    public void remove(int cell, int val) {
+
+        int bit = ~valueBit(val);
+
+        this.rowMasks[CELL_ROWS[cell]] &= bit;
+        this.colMasks[CELL_COLS[cell]] &= bit;
+        this.boxMasks[CELL_BOXES[cell]] &= bit;
+    }
+
+    public void place(int row, int col, int val) {
+
+        int bit = valueBit(val);
+
+        this.rowMasks[row] |= bit;
+        this.colMasks[col] |= bit;
+        this.boxMasks[boxIndex(row, col)] |= bit;
+    }
+
+    public void remove(int row, int col, int val) {
+
+        int bit = ~valueBit(val);
+
+        this.rowMasks[row] &= bit;
+        this.colMasks[col] &= bit;
+        this.boxMasks[boxIndex(row, col)] &= bit;
+    }
+
+    /* The cell scans every 9x9 search branches with, one for each way the
+     * searches keep their grid. Each returns -1 if there are no empty
+     * cells, and the "best" ones return the empty cell with the fewest
+     * candidates, the first in row order on a tie, or the first with one
+     * or none, as nothing can beat it.
+     */
+    static int getFirstEmptyCell(SudokuGrid grid) {
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            if (grid.get(cell) == 0) {
+                return cell;
+            }
+        }
+
+        return -1;
+    }
+
+    // Cells with the value 0 are empty
+    static int getFirstEmptyCell(int[] values) {
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            if (values[cell] == 0) {
+                return cell;
+            }
+        }
+
+        return -1;
+    }
+
+    // Candidates of the grid's empty cells are taken from these masks
+    int getBestEmptyCell(SudokuGrid grid) {
+
+        int bestCell = -1;
+        int bestCount = 10;
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            if (grid.get(cell) == 0) {
+                int count = Integer.bitCount(this.getCandidates(cell));
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCount = count;
+                    if (count <= 1) {
+                        return bestCell;
+                    }
+                }
+            }
+        }
+
+        return bestCell;
+    }
+
+    // Cells with the value 0 are empty
+    static int getBestEmptyCell(int[] values, int[] candidates) {
+
+        int bestCell = -1;
+        int bestCount = 10;
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            if (values[cell] == 0) {
+                int count = Integer.bitCount(candidates[cell]);
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCount = count;
+                    if (count <= 1) {
+                        return bestCell;
+                    }
+                }
+            }
+        }
+
+        return bestCell;
+    }
+
+    /* Cells are empty where filledFlag is not set in their candidates,
+     * which are the other bits
+     */
+    static int getBestEmptyCell(int[] candidates, int filledFlag) {
+
+        int bestCell = -1;
+        int bestCount = 10;
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            if ((candidates[cell] & filledFlag) == 0) {
+                int count = Integer.bitCount(candidates[cell]);
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCount = count;
+                    if (count <= 1) {
+                        return bestCell;
+                    }
+                }
+            }
+        }
+
+        return bestCell;
+    }
+}
@@ -0,0 +1,328 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuCanonicalizer.java
+ * Purpose:     Find the canonical form of a sudoku grid: the smallest grid,
+ *              read row by row, among every grid it can be turned into by
+ *              transposing, reordering bands and stacks, reordering rows and
+ *              columns within them and relabelling digits. Grids have the
+ *              same canonical form exactly when they are equivalent. Not
+ *              safe to share between threads.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuCanonicalizer {
+
+    /* Search steps allowed before giving up. Ordinary puzzles take a few
+     * thousand; grids with few clues can be so symmetric that finding the
+     * canonical form would take longer than solving them.
+     */
+    private static final int MAX_SEARCH_STEPS = 1 << 17;
+
+    private int steps;
+
+    // The grid searched, untransposed and transposed
+    private final int[][][] grids = new int[2][9][9];
+
+    // Grid of the current search, and the column placed at each position
+    private int[][] grid;
+    private final int[] colOrder = new int[9];
+
+    // Smallest form found so far, with rows from bestValidRows on unset
+    private final int[] best = new int[81];
+    private int bestValidRows;
+
+    // Row chosen for each position, and the digit labels given before it
+    private final int[] rowOrder = new int[9];
+    private final int[][] digitMaps = new int[10][10];
+    private final int[] nextLabels = new int[10];
+
+    // Relabelled values and labels after each candidate row, per depth
+    private final int[][][] candidateRows = new int[9][9][9];
+    private final int[][][] candidateMaps = new int[9][9][10];
+    private final int[][] candidateNextLabels = new int[9][9];
+
+    // Squares of each label left in the first row, for bounding it
+    private final int[] labelCounts = new int[10];
+
+    // Transform giving the best form
+    private boolean bestTransposed;
+    private final int[] bestRowOrder = new int[9];
+    private final int[] bestColOrder = new int[9];
+    private final int[] bestDigitMap = new int[10];
+
+    public SudokuCanonicalizer() {}
+
+    /* Write the canonical form of a grid into canonical, and a symmetry
+     * that turns the grid into it into symmetry. Returns false, leaving
+     * both unset, if the search took too many steps.
+     */
+    public boolean canonicalize(SudokuGrid input, SudokuGrid canonical,
+                                SudokuSymmetry symmetry) {
+
+        int[] clueCounts = new int[18];
+
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int val = input.get(r, c);
+                this.grids[0][r][c] = val;
+                this.grids[1][c][r] = val;
+                if (val != 0) {
+                    clueCounts[r]++;
+                    clueCounts[9 + c]++;
+                }
+            }
+        }
+
+        this.bestValidRows = 0;
+        this.steps = 0;
+
+        // Try the first rows with the fewest clues first, as the smallest
+        // form usually starts with one of them and finding it early lets
+        // more of the search be skipped
+        for (int clues = 0; clues <= 9; clues++) {
+            for (int first = 0; first < 18; first++) {
+                if (clueCounts[first] == clues) {
+                    this.grid = this.grids[first / 9];
+                    this.rowOrder[0] = first % 9;
+                    this.searchColumns(0, 0);
+                }
+            }
+        }
+
+        if (this.steps > MAX_SEARCH_STEPS) {
+            return false;
+        }
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            canonical.set(cell, this.best[cell]);
+        }
+
+        symmetry.set(this.bestTransposed, this.bestRowOrder,
+                     this.bestColOrder, this.bestDigitMap);
+
+        return true;
+    }
+
+    /* Choose the column for a position, keeping stacks together, and
+     * search the rows once every column is placed. Orders whose first
+     * columns cannot make the chosen first row as small as the best one
+     * are skipped.
+     */
+    private void searchColumns(int position, int usedCols) {
+
+        if (++this.steps > MAX_SEARCH_STEPS) {
+            return;
+        }
+
+        if (position == 9) {
+            this.nextLabels[0] = 1;
+            for (int d = 0; d <= 9; d++) {
+                this.digitMaps[0][d] = 0;
+            }
+            this.search(0, 0);
+            return;
+        }
+
+        int stack = this.colOrder[position - position % 3] / 3;
+
+        for (int col = 0; col < 9; col++) {
+
+            // The first column of a stack may come from any unused stack,
+            // the rest from the same stack as it
+            boolean allowed = position % 3 == 0
+                    ? (usedCols & (7 << (col - col % 3))) == 0
+                    : (usedCols & (1 << col)) == 0 && col / 3 == stack;
+
+            if (allowed) {
+                this.colOrder[position] = col;
+                if (this.canStartFirstRow(position + 1,
+                                          usedCols | (1 << col))) {
+                    this.searchColumns(position + 1, usedCols | (1 << col));
+                }
+            }
+        }
+    }
+
+    /* Whether the first row could still be no larger than the best one.
+     * It can do no better than its relabelled first columns, then its
+     * remaining empty squares, then its remaining labels in increasing
+     * order.
+     */
+    private boolean canStartFirstRow(int length, int usedCols) {
+
+        if (this.bestValidRows == 0) {
+            return true;
+        }
+
+        int[] row = this.grid[this.rowOrder[0]];
+        int[] map = this.digitMaps[0];
+        int[] labelCounts = this.labelCounts;
+
+        for (int d = 0; d <= 9; d++) {
+            map[d] = 0;
+            labelCounts[d] = 0;
+        }
+
+        int nextLabel = 1;
+        int comparison = 0;
+        int j = 0;
+
+        for (; j < length && comparison == 0; j++) {
+            int val = row[this.colOrder[j]];
+            if (val != 0 && map[val] == 0) {
+                map[val] = nextLabel++;
+            }
+            comparison = Integer.compare(map[val], this.best[j]);
+        }
+
+        if (comparison != 0) {
+            return comparison < 0;
+        }
+
+        // Count the labels of the squares not yet placed, giving up on the
+        // bound for a row with a repeated digit
+        int seen = 0;
+
+        for (int col = 0; col < 9; col++) {
+
+            int val = row[col];
+
+            if (val != 0) {
+                if ((seen & (1 << val)) != 0) {
+                    return true;
+                }
+                seen |= 1 << val;
+            }
+
+            if ((usedCols & (1 << col)) == 0) {
+                labelCounts[val == 0 ? 0
+                        : map[val] != 0 ? map[val] : nextLabel++]++;
+            }
+        }
+
+        int label = 0;
+
+        for (; j < 9 && comparison == 0; j++) {
+            while (labelCounts[label] == 0) {
+                label++;
+            }
+            labelCounts[label]--;
+            comparison = Integer.compare(label, this.best[j]);
+        }
+
+        return comparison <= 0;
+    }
+
+    // Relabel one row in the current column order, extending the labels
+    private int relabelRow(int row, int[] map, int nextLabel, int[] out) {
+
+        int[] values = this.grid[row];
+
+        for (int j = 0; j < 9; j++) {
+            int val = values[this.colOrder[j]];
+            if (val != 0 && map[val] == 0) {
+                map[val] = nextLabel++;
+            }
+            out[j] = map[val];
+        }
+
+        return nextLabel;
+    }
+
+    private static int compareRows(int[] a, int[] b, int bStart) {
+
+        for (int j = 0; j < 9; j++) {
+            if (a[j] != b[bStart + j]) {
+                return a[j] < b[bStart + j] ? -1 : 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /* Choose the row for a position, only following the rows that give
+     * the smallest values there and giving up as soon as the form so far
+     * is larger than the best one.
+     */
+    private void search(int depth, int usedRows) {
+
+        if (++this.steps > MAX_SEARCH_STEPS) {
+            return;
+        }
+
+        if (depth == 9) {
+            this.bestTransposed = this.grid == this.grids[1];
+            System.arraycopy(this.rowOrder, 0, this.bestRowOrder, 0, 9);
+            System.arraycopy(this.colOrder, 0, this.bestColOrder, 0, 9);
+            System.arraycopy(this.digitMaps[9], 0, this.bestDigitMap, 0, 10);
+            return;
+        }
+
+        // The first row is chosen before the columns, the first row of
+        // each later band may come from any unused band and the rest from
+        // the same band as it
+        int firstRow = 0;
+        int lastRow = 8;
+
+        if (depth == 0) {
+            firstRow = this.rowOrder[0];
+            lastRow = firstRow;
+        }
+        else if (depth % 3 != 0) {
+            firstRow = 3 * (this.rowOrder[depth - depth % 3] / 3);
+            lastRow = firstRow + 2;
+        }
+
+        int[][] rows = this.candidateRows[depth];
+        int[][] maps = this.candidateMaps[depth];
+        int[] nextLabels = this.candidateNextLabels[depth];
+        int smallest = -1;
+
+        for (int row = firstRow; row <= lastRow; row++) {
+
+            if ((usedRows & (1 << row)) != 0) {
+                continue;
+            }
+
+            System.arraycopy(this.digitMaps[depth], 0, maps[row], 0, 10);
+            nextLabels[row] = this.relabelRow(row, maps[row],
+                    this.nextLabels[depth], rows[row]);
+
+            if (smallest == -1 || compareRows(rows[row], rows[smallest], 0)
+                    < 0) {
+                smallest = row;
+            }
+        }
+
+        if (depth < this.bestValidRows) {
+            int comparison = compareRows(rows[smallest], this.best, 9 * depth);
+            if (comparison > 0) {
+                return;
+            }
+            if (comparison < 0) {
+                this.bestValidRows = depth;
+            }
+        }
+
+        if (depth >= this.bestValidRows) {
+            System.arraycopy(rows[smallest], 0, this.best, 9 * depth, 9);
+            this.bestValidRows = depth + 1;
+        }
+
+        for (int row = firstRow; row <= lastRow; row++) {
+
+            if ((usedRows & (1 << row)) != 0
+                    || compareRows(rows[row], rows[smallest], 0) != 0) {
+                continue;
+            }
+
+            this.rowOrder[depth] = row;
+            System.arraycopy(maps[row], 0, this.digitMaps[depth + 1], 0, 10);
+            this.nextLabels[depth + 1] = nextLabels[row];
+
+            this.search(depth + 1, usedRows | (1 << row));
+        }
+    }
+}
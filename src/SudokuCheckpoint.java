@@ -0,0 +1,226 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Filename:    SudokuCheckpoint.java
+ * Purpose:     The progress of a long search, saved to a small text file so
+ *              that the search can carry on from there in a later run: the
+ *              puzzle and the settings that decide the order of the search,
+ *              the number of solutions found, and the branches taken down
+ *              to the last finished part of the search, with the values
+ *              still to try at each of them. Solutions being kept are
+ *              written to a second file beside it, and the checkpoint says
+ *              how many of them belong to the saved progress.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuCheckpoint {
+
+    private static final String HEADER = "sudoku-checkpoint 1";
+
+    // Added to the checkpoint file's path to name the file of solutions
+    public static final String SOLUTIONS_SUFFIX = ".solutions";
+
+    private final String puzzle;
+    private final String settings;
+    private long solutionCount = 0;
+    private long storedCount = 0;
+
+    // Whether any part of the search has finished yet
+    private boolean started = false;
+
+    // For each branch on the way to the last finished part: the cell, the
+    // value taken and a mask of the values not yet tried
+    private int levelCount = 0;
+    private int[] cells = new int[0];
+    private int[] values = new int[0];
+    private int[] untried = new int[0];
+
+    /* A checkpoint at the start of the search of a puzzle, written as 81
+     * digits, with settings that must match for the search to resume.
+     */
+    public SudokuCheckpoint(String puzzle, String settings) {
+        this.puzzle = puzzle;
+        this.settings = settings;
+    }
+
+    public String getPuzzle() {
+        return this.puzzle;
+    }
+
+    public String getSettings() {
+        return this.settings;
+    }
+
+    public long getSolutionCount() {
+        return this.solutionCount;
+    }
+
+    // Solutions in the solutions file that belong to this checkpoint
+    public long getStoredCount() {
+        return this.storedCount;
+    }
+
+    public void setCounts(long solutionCount, long storedCount) {
+        this.solutionCount = solutionCount;
+        this.storedCount = storedCount;
+    }
+
+    public boolean isStarted() {
+        return this.started;
+    }
+
+    public int getLevelCount() {
+        return this.levelCount;
+    }
+
+    public int getCell(int level) {
+        return this.cells[level];
+    }
+
+    public int getValue(int level) {
+        return this.values[level];
+    }
+
+    public int getUntried(int level) {
+        return this.untried[level];
+    }
+
+    // Record the branches down to a part of the search that has finished
+    public void setPosition(int[] cells, int[] values, int[] untried,
+                            int levelCount) {
+        this.started = true;
+        this.levelCount = levelCount;
+        this.cells = Arrays.copyOf(cells, levelCount);
+        this.values = Arrays.copyOf(values, levelCount);
+        this.untried = Arrays.copyOf(untried, levelCount);
+    }
+
+    public static Path getSolutionsPath(Path path) {
+        return Paths.get(path.toString() + SOLUTIONS_SUFFIX);
+    }
+
+    /* Write the checkpoint to a temporary file and move it over the old
+     * one, so a crash while writing never leaves a broken checkpoint.
+     */
+    public void write(Path path) throws IOException {
+
+        Path temporary = Paths.get(path.toString() + ".tmp");
+
+        try (Writer writer = Files.newBufferedWriter(temporary,
+                StandardCharsets.US_ASCII)) {
+
+            writer.write(HEADER + "\n");
+            writer.write("puzzle " + this.puzzle + "\n");
+            writer.write("settings " + this.settings + "\n");
+            writer.write("solutions " + this.solutionCount + "\n");
+            writer.write("stored " + this.storedCount + "\n");
+
+            if (!this.started) {
+                writer.write("last-finished none\n");
+            }
+            else {
+                writer.write("last-finished " + this.levelCount + "\n");
+                for (int i = 0; i < this.levelCount; i++) {
+                    writer.write(this.cells[i] + " " + this.values[i] + " "
+                            + this.untried[i] + "\n");
+                }
+            }
+        }
+
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Throws IOException if the file cannot be read or is not a checkpoint
+    public static SudokuCheckpoint read(Path path) throws IOException {
+
+        try (BufferedReader reader = Files.newBufferedReader(path,
+                StandardCharsets.US_ASCII)) {
+
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException("not a checkpoint file");
+            }
+
+            SudokuCheckpoint checkpoint = new SudokuCheckpoint(
+                    readField(reader, "puzzle"),
+                    readField(reader, "settings"));
+            checkpoint.setCounts(
+                    parseNumber(readField(reader, "solutions")),
+                    parseNumber(readField(reader, "stored")));
+
+            String position = readField(reader, "last-finished");
+
+            if (!position.equals("none")) {
+
+                long number = parseNumber(position);
+
+                // Checked before allocating, so a corrupt file cannot ask
+                // for huge arrays
+                if (number > SudokuGrid.CELL_COUNT) {
+                    throw new IOException("checkpoint file is corrupt");
+                }
+
+                int levelCount = (int) number;
+                int[] cells = new int[levelCount];
+                int[] values = new int[levelCount];
+                int[] untried = new int[levelCount];
+
+                for (int i = 0; i < levelCount; i++) {
+                    String line = reader.readLine();
+                    String[] fields = line == null ? new String[0]
+                                                   : line.split(" ");
+                    if (fields.length != 3) {
+                        throw new IOException("checkpoint file is cut short");
+                    }
+                    cells[i] = (int) parseNumber(fields[0]);
+                    values[i] = (int) parseNumber(fields[1]);
+                    untried[i] = (int) parseNumber(fields[2]);
+                }
+
+                checkpoint.setPosition(cells, values, untried, levelCount);
+            }
+
+            return checkpoint;
+        }
+    }
+
+    private static String readField(BufferedReader reader, String name)
+            throws IOException {
+
+        String line = reader.readLine();
+
+        if (line == null || !line.startsWith(name + " ")) {
+            throw new IOException("checkpoint file has no " + name
+                    + " line where expected");
+        }
+
+        return line.substring(name.length() + 1);
+    }
+
+    private static long parseNumber(String text) throws IOException {
+
+        try {
+            long number = Long.parseLong(text);
+            if (number >= 0) {
+                return number;
+            }
+        }
+        catch (NumberFormatException e) {
+            // Reported below
+        }
+
+        throw new IOException("checkpoint file has " + text
+                + " where a number was expected");
+    }
+}
@@ -0,0 +1,460 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filename:    SudokuCheckpointedSearch.java
+ * Purpose:     Search for every solution of a 9x9 grid in parts that can be
+ *              saved and resumed. The search tree is cut at the split depth
+ *              into subtrees, which are searched one after another or on a
+ *              pool of threads and added to the results in the order a
+ *              single thread would find them. Every so often, and when the
+ *              search is stopped early, the position after the last subtree
+ *              added is saved as a SudokuCheckpoint, which a later run can
+ *              carry on from without finding any solution twice or missing
+ *              one.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuCheckpointedSearch {
+
+    // Subtrees queued or being searched for each thread in the pool
+    private static final int PENDING_PER_THREAD = 4;
+
+    // Longest a shutdown waits for the last checkpoint to be written
+    private static final long SHUTDOWN_SAVE_SECONDS = 30;
+
+    // Bytes of each solution in the solutions file
+    private static final int SOLUTION_BYTES = 8 * SudokuGrid.PACKED_LENGTH;
+
+    private final SudokuGrid grid;
+    private final SudokuSolveOptions options;
+    private final SudokuSolutionBuffer results;
+    private final SudokuSolverStats stats;
+    private final Path path;
+    private final Path solutionsPath;
+
+    private final SudokuSearchSplitter splitter;
+    private final ThreadLocal<SudokuBacktrackingSolver> workerSolvers;
+
+    private SudokuCheckpoint checkpoint;
+
+    // Solutions already in the solutions file
+    private long savedStoredCount = 0;
+
+    // Whether a subtree added to the results was cut short, after which
+    // the checkpoint can no longer move forward
+    private boolean cutShort = false;
+
+    private volatile boolean finished = false;
+    private final CountDownLatch saved = new CountDownLatch(1);
+
+    public SudokuCheckpointedSearch(SudokuGrid grid,
+                                    SudokuSolveOptions options,
+                                    SudokuSolutionBuffer results,
+                                    SudokuSolverStats stats) {
+
+        this.grid = grid;
+        this.options = options;
+        this.results = results;
+        this.stats = stats;
+        this.path = Paths.get(options.getCheckpointPath());
+        this.solutionsPath = SudokuCheckpoint.getSolutionsPath(this.path);
+
+        this.splitter = new SudokuSearchSplitter(grid, this.newSolver(),
+                                                 options.getSplitDepth(), stats);
+        this.workerSolvers = ThreadLocal.withInitial(this::newSolver);
+
+        StringBuilder puzzle = new StringBuilder(SudokuGrid.CELL_COUNT);
+        grid.appendDigits(puzzle);
+        this.checkpoint = new SudokuCheckpoint(puzzle.toString(),
+                                               this.getSettings());
+    }
+
+    private SudokuBacktrackingSolver newSolver() {
+        return new SudokuBacktrackingSolver(
+                this.options.isUsingMinimumRemainingValues(),
+                this.options.isUsingConstraintPropagation());
+    }
+
+    // Settings that change the order of the search or what is saved
+    private String getSettings() {
+        return "m=" + (this.options.isUsingMinimumRemainingValues() ? 1 : 0)
+                + " c=" + (this.options.isUsingConstraintPropagation() ? 1 : 0)
+                + " s=" + this.options.getSplitDepth()
+                + " count-only=" + (this.options.isCountOnly() ? 1 : 0);
+    }
+
+    /* Load the progress saved by an earlier run, adding the solutions it
+     * had found to the results. Throws IOException if the checkpoint
+     * cannot be read or was saved for another puzzle or other settings.
+     */
+    public void resume() throws IOException {
+
+        if (!Files.exists(this.path)) {
+            throw new IOException("no such file");
+        }
+
+        SudokuCheckpoint saved = SudokuCheckpoint.read(this.path);
+
+        if (!saved.getPuzzle().equals(this.checkpoint.getPuzzle())
+                || !saved.getSettings().equals(
+                        this.checkpoint.getSettings())) {
+            throw new IOException("it was saved for a different puzzle or"
+                    + " different -m, -c, -s or --count-only settings");
+        }
+
+        int levelCount = saved.getLevelCount();
+        int[] cells = new int[levelCount];
+        int[] values = new int[levelCount];
+        int[] untried = new int[levelCount];
+
+        for (int i = 0; i < levelCount; i++) {
+            if (saved.getCell(i) >= SudokuGrid.CELL_COUNT
+                    || saved.getValue(i) < 1 || saved.getValue(i) > 9
+                    || saved.getUntried(i) > SudokuCandidateMasks.ALL_VALUES) {
+                throw new IOException("checkpoint file has a branch that"
+                        + " cannot be in a 9x9 grid");
+            }
+            cells[i] = saved.getCell(i);
+            values[i] = saved.getValue(i);
+            untried[i] = saved.getUntried(i);
+        }
+
+        if (saved.isStarted()) {
+            this.splitter.restore(cells, values, untried, levelCount);
+        }
+
+        if (this.options.isCountOnly()) {
+            this.results.addCount(saved.getSolutionCount());
+        }
+        else {
+            this.loadSolutions(saved.getStoredCount());
+        }
+
+        this.checkpoint = saved;
+        this.savedStoredCount = saved.getStoredCount();
+    }
+
+    /* Add the first count solutions in the solutions file to the results,
+     * dropping any written after the checkpoint was saved.
+     */
+    private void loadSolutions(long count) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(this.solutionsPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+
+            if (channel.size() < count * SOLUTION_BYTES) {
+                throw new IOException("solutions file is cut short");
+            }
+
+            channel.truncate(count * SOLUTION_BYTES);
+
+            ByteBuffer bytes = ByteBuffer.allocate(SOLUTION_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            long[] packed = new long[SudokuGrid.PACKED_LENGTH];
+            SudokuGrid solution = new SudokuGrid();
+
+            for (long i = 0; i < count; i++) {
+
+                bytes.clear();
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes) < 0) {
+                        throw new IOException("solutions file is cut short");
+                    }
+                }
+                bytes.flip();
+
+                for (int j = 0; j < packed.length; j++) {
+                    packed[j] = bytes.getLong();
+                }
+
+                solution.unpack(packed, 0);
+                this.results.addSolution(solution);
+            }
+        }
+    }
+
+    /* Search from the start, or from where resume() left off, until every
+     * solution has been found or the search is stopped. Throws IOException
+     * if a checkpoint cannot be saved.
+     */
+    public void run() throws IOException {
+
+        int threadCount = this.options.isUsingMultithreading()
+                ? Runtime.getRuntime().availableProcessors() : 1;
+        int maxPending = threadCount == 1 ? 1
+                                          : threadCount * PENDING_PER_THREAD;
+        ExecutorService executor = threadCount == 1 ? null
+                : Executors.newFixedThreadPool(threadCount);
+        ArrayDeque<Subtree> pending = new ArrayDeque<>();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(
+                this.options.getCheckpointIntervalSeconds());
+        long lastSaveTime = System.nanoTime();
+        boolean more = true;
+
+        // Save what has been finished if the program is stopped
+        Thread shutdownHook = new Thread(this::stopAndWaitForSave);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        if (!this.options.isResuming()) {
+            Files.deleteIfExists(this.solutionsPath);
+        }
+
+        // The time limit counts from here, after any saved solutions were
+        // loaded, and cannot stop the run before the checkpoint has moved
+        // past one subtree, so every run makes progress
+        this.results.restartTimeLimit();
+        this.results.setTimeLimitHeld(true);
+
+        try {
+            while (true) {
+
+                while (more && pending.size() < maxPending
+                        && !this.results.isStopped()) {
+
+                    Subtree subtree = this.nextSubtree();
+
+                    if (subtree == null) {
+                        more = false;
+                    }
+                    else if (executor == null) {
+                        subtree.search();
+                        pending.add(subtree);
+                    }
+                    else {
+                        subtree.result = executor.submit(subtree::search);
+                        pending.add(subtree);
+                    }
+                }
+
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                this.add(pending.poll());
+
+                if (System.nanoTime() - lastSaveTime >= intervalNanos) {
+                    this.save();
+                    lastSaveTime = System.nanoTime();
+                }
+            }
+
+            // A search that ran to the end, or to the maximum number of
+            // solutions, has nothing left to resume
+            if (this.results.isCancelled()) {
+                this.save();
+            }
+            else {
+                Files.deleteIfExists(this.path);
+                Files.deleteIfExists(this.solutionsPath);
+            }
+        }
+        finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            this.finished = true;
+            this.saved.countDown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }
+            catch (IllegalStateException e) {
+                // Already shutting down
+            }
+        }
+    }
+
+    private void stopAndWaitForSave() {
+
+        if (this.finished) {
+            return;
+        }
+
+        this.results.cancel();
+
+        try {
+            this.saved.await(SHUTDOWN_SAVE_SECONDS, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Whether the search stopped early and its progress was saved
+    public boolean isSaved() {
+        return this.results.isCancelled();
+    }
+
+    // The next subtree in search order, or null once all are handed out
+    private Subtree nextSubtree() {
+
+        if (!this.splitter.next()) {
+            return null;
+        }
+
+        return new Subtree();
+    }
+
+    /* Add the solutions and counters of a searched subtree to the results,
+     * moving the checkpoint past it if it was searched to the end.
+     */
+    private void add(Subtree subtree) throws IOException {
+
+        subtree.await();
+
+        this.results.addAll(subtree.buffer);
+        subtree.buffer.clearSolutions();
+        this.stats.addAll(subtree.stats);
+
+        if (!subtree.complete) {
+            this.cutShort = true;
+        }
+
+        if (!this.cutShort) {
+            this.checkpoint.setPosition(subtree.cells, subtree.values,
+                                        subtree.untried, subtree.cells.length);
+            this.checkpoint.setCounts(this.results.getCount(),
+                                      this.results.getStoredCount());
+            this.results.setTimeLimitHeld(false);
+        }
+    }
+
+    /* Append the solutions found since the last save to the solutions file
+     * and make sure they are on disk, then replace the checkpoint.
+     */
+    private void save() throws IOException {
+
+        long storedCount = this.checkpoint.getStoredCount();
+
+        if (storedCount > this.savedStoredCount) {
+
+            try (FileChannel channel = FileChannel.open(this.solutionsPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+                channel.position(this.savedStoredCount * SOLUTION_BYTES);
+
+                ByteBuffer bytes = ByteBuffer.allocate(1 << 16)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                long[] packed = new long[SudokuGrid.PACKED_LENGTH];
+                SudokuGrid solution = new SudokuGrid();
+
+                for (long i = this.savedStoredCount; i < storedCount; i++) {
+                    if (bytes.remaining() < SOLUTION_BYTES) {
+                        writeAll(channel, bytes);
+                    }
+                    this.results.copySolution(i, solution);
+                    solution.pack(packed, 0);
+                    for (long word : packed) {
+                        bytes.putLong(word);
+                    }
+                }
+
+                writeAll(channel, bytes);
+                channel.force(false);
+            }
+
+            this.savedStoredCount = storedCount;
+        }
+
+        this.checkpoint.write(this.path);
+    }
+
+    private static void writeAll(FileChannel channel, ByteBuffer bytes)
+            throws IOException {
+
+        bytes.flip();
+
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+
+        bytes.clear();
+    }
+
+    // One subtree of the search, with the branches down to it
+    private class Subtree {
+
+        private final int[] cells;
+        private final int[] values;
+        private final int[] untried;
+
+        // Only written by the thread searching the subtree
+        private final SudokuSolutionBuffer buffer;
+        private final SudokuSolverStats stats = new SudokuSolverStats();
+        private boolean complete = false;
+
+        private Future<?> result;
+
+        private Subtree() {
+
+            SudokuSearchSplitter splitter
+                    = SudokuCheckpointedSearch.this.splitter;
+
+            this.cells = splitter.getCells();
+            this.values = splitter.getValues();
+            this.untried = splitter.getUntried();
+            this.buffer = SudokuCheckpointedSearch.this.results
+                    .newSharedBuffer();
+        }
+
+        private void search() {
+
+            if (this.buffer.isStopped()) {
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            SudokuBacktrackingSolver solver
+                    = SudokuCheckpointedSearch.this.workerSolvers.get();
+            if (solver.load(SudokuCheckpointedSearch.this.grid)
+                    && SudokuSearchSplitter.placeBranches(solver, this.cells,
+                            this.values, this.stats)) {
+                solver.solve(this.buffer);
+            }
+
+            solver.addStatsTo(this.stats);
+            this.stats.addWorkerTime(Thread.currentThread().getName(),
+                                     System.nanoTime() - startTime,
+                                     this.stats.getNodeCount());
+
+            this.complete = !this.buffer.isStopped();
+        }
+
+        // Wait for the subtree to be searched, if it is on another thread
+        private void await() throws IOException {
+
+            if (this.result == null) {
+                return;
+            }
+
+            try {
+                this.result.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while searching", e);
+            }
+            catch (ExecutionException e) {
+                throw new IOException("Failed to search", e.getCause());
+            }
+        }
+    }
+}
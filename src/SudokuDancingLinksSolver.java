@@ -0,0 +1,258 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuDancingLinksSolver.java
+ * Purpose:     Find the solutions to a sudoku grid by treating it as an
+ *              exact cover problem and running Knuth's Algorithm X with
+ *              dancing links over preallocated node arrays.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuDancingLinksSolver implements SudokuSolver {
+
+    /* -------------------------
+       -- Exact cover settings --
+       -------------------------*/
+
+    /* Columns 1-81 are "cell is filled", 82-162 "row has value",
+     * 163-243 "column has value" and 244-324 "box has value".
+     * Column 0 is the root of the header list.
+     */
+    private static final int COLUMN_COUNT = 324;
+
+    // One matrix row for each value in each cell, 4 nodes per row
+    private static final int ROW_COUNT = 729;
+    private static final int NODES_PER_ROW = 4;
+    private static final int NODE_COUNT = 1 + COLUMN_COUNT
+            + NODES_PER_ROW * ROW_COUNT;
+
+    private static final int ROOT = 0;
+
+    private final int[] left = new int[NODE_COUNT];
+    private final int[] right = new int[NODE_COUNT];
+    private final int[] up = new int[NODE_COUNT];
+    private final int[] down = new int[NODE_COUNT];
+    private final int[] column = new int[NODE_COUNT];
+    private final int[] matrixRow = new int[NODE_COUNT];
+    private final int[] size = new int[COLUMN_COUNT + 1];
+    private final boolean[] covered = new boolean[COLUMN_COUNT + 1];
+
+    private final SudokuGrid clues = new SudokuGrid();
+    private final int[] chosenRows = new int[81];
+    private final SudokuGrid solution = new SudokuGrid();
+    private SudokuSolutionSink sink;
+
+    // Search counters since the grid was loaded, see SudokuSolverStats
+    private long nodeCount;
+    private long backtrackCount;
+    private int maxDepth;
+
+    public SudokuDancingLinksSolver() {}
+
+    // Matrix row for value val (1-9) in the cell at (row, col)
+    private static int matrixRowIndex(int row, int col, int val) {
+        return 9 * (9 * row + col) + val - 1;
+    }
+
+    // First node of a matrix row, which is always in its cell column
+    private static int firstNode(int rowIndex) {
+        return 1 + COLUMN_COUNT + NODES_PER_ROW * rowIndex;
+    }
+
+    private static int constraintColumn(int rowIndex, int constraint) {
+
+        int cell = rowIndex / 9;
+        int val = rowIndex % 9;
+        int row = cell / 9;
+        int col = cell % 9;
+
+        switch (constraint) {
+            case 0:
+                return 1 + cell;
+            case 1:
+                return 1 + 81 + 9 * row + val;
+            case 2:
+                return 1 + 162 + 9 * col + val;
+            default:
+                return 1 + 243 + 9 * SudokuCandidateMasks.boxIndex(row, col)
+                        + val;
+        }
+    }
+
+    // Link every node into the full matrix, undoing any earlier search
+    private void build() {
+
+        for (int c = 0; c <= COLUMN_COUNT; c++) {
+            this.left[c] = c - 1;
+            this.right[c] = c + 1;
+            this.up[c] = c;
+            this.down[c] = c;
+            this.column[c] = c;
+            this.size[c] = 0;
+            this.covered[c] = false;
+        }
+
+        this.left[ROOT] = COLUMN_COUNT;
+        this.right[COLUMN_COUNT] = ROOT;
+
+        for (int r = 0; r < ROW_COUNT; r++) {
+
+            int first = firstNode(r);
+
+            for (int k = 0; k < NODES_PER_ROW; k++) {
+
+                int node = first + k;
+                int c = constraintColumn(r, k);
+
+                this.column[node] = c;
+                this.matrixRow[node] = r;
+
+                this.up[node] = this.up[c];
+                this.down[node] = c;
+                this.down[this.up[c]] = node;
+                this.up[c] = node;
+                this.size[c]++;
+
+                this.left[node] = k == 0 ? first + NODES_PER_ROW - 1
+                                         : node - 1;
+                this.right[node] = k == NODES_PER_ROW - 1 ? first : node + 1;
+            }
+        }
+    }
+
+    private void cover(int c) {
+
+        this.covered[c] = true;
+        this.right[this.left[c]] = this.right[c];
+        this.left[this.right[c]] = this.left[c];
+
+        for (int i = this.down[c]; i != c; i = this.down[i]) {
+            for (int j = this.right[i]; j != i; j = this.right[j]) {
+                this.up[this.down[j]] = this.up[j];
+                this.down[this.up[j]] = this.down[j];
+                this.size[this.column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+
+        for (int i = this.up[c]; i != c; i = this.up[i]) {
+            for (int j = this.left[i]; j != i; j = this.left[j]) {
+                this.size[this.column[j]]++;
+                this.up[this.down[j]] = j;
+                this.down[this.up[j]] = j;
+            }
+        }
+
+        this.right[this.left[c]] = c;
+        this.left[this.right[c]] = c;
+        this.covered[c] = false;
+    }
+
+    // Cover every column of a clue's row, returning false if it clashes
+    private boolean selectClue(int rowIndex) {
+
+        int first = firstNode(rowIndex);
+
+        for (int k = 0; k < NODES_PER_ROW; k++) {
+            if (this.covered[this.column[first + k]]) {
+                return false;
+            }
+        }
+
+        for (int k = 0; k < NODES_PER_ROW; k++) {
+            this.cover(this.column[first + k]);
+        }
+
+        return true;
+    }
+
+    @Override
+    public void solveAll(SudokuGrid grid, SudokuSolutionSink sink) {
+
+        this.sink = sink;
+        this.build();
+        this.clues.copyFrom(grid);
+
+        this.nodeCount = 0;
+        this.backtrackCount = 0;
+        this.maxDepth = 0;
+
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int val = grid.get(r, c);
+                if (val != 0 && !this.selectClue(matrixRowIndex(r, c, val))) {
+                    return;
+                }
+            }
+        }
+
+        this.search(0);
+    }
+
+    // Exact cover has no candidates to reject or cells to propagate
+    @Override
+    public void addStatsTo(SudokuSolverStats stats) {
+        stats.addCounts(this.nodeCount, 0, this.backtrackCount, 0,
+                        this.maxDepth);
+    }
+
+    private void search(int depth) {
+
+        if (this.right[ROOT] == ROOT) {
+            this.addSolution(depth);
+            return;
+        }
+
+        // Branch on the column with fewest rows, the first one on a tie
+        int best = this.right[ROOT];
+
+        for (int c = this.right[best]; c != ROOT; c = this.right[c]) {
+            if (this.size[c] < this.size[best]) {
+                best = c;
+            }
+        }
+
+        this.nodeCount++;
+        this.maxDepth = Math.max(this.maxDepth, depth);
+
+        if (this.size[best] == 0) {
+            this.backtrackCount++;
+            return;
+        }
+
+        this.cover(best);
+
+        for (int r = this.down[best]; r != best && !this.sink.isStopped(); 
+                r = this.down[r]) {
+
+            this.chosenRows[depth] = this.matrixRow[r];
+
+            for (int j = this.right[r]; j != r; j = this.right[j]) {
+                this.cover(this.column[j]);
+            }
+
+            this.search(depth + 1);
+
+            for (int j = this.left[r]; j != r; j = this.left[j]) {
+                this.uncover(this.column[j]);
+            }
+        }
+
+        this.uncover(best);
+    }
+
+    private void addSolution(int depth) {
+
+        this.solution.copyFrom(this.clues);
+
+        for (int i = 0; i < depth; i++) {
+            this.solution.set(this.chosenRows[i] / 9, 
+                              this.chosenRows[i] % 9 + 1);
+        }
+
+        this.sink.addSolution(this.solution);
+    }
+}
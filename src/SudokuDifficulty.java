@@ -0,0 +1,30 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuDifficulty.java
+ * Purpose:     The difficulties of puzzle that can be generated.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public enum SudokuDifficulty {
+
+    // Solved by deduction alone: naked and hidden singles and locked
+    // candidates, as filled by SudokuPropagator
+    EASY,
+
+    // Has one solution but needs at least one guess to find it
+    HARD;
+
+    // Look up a difficulty by its name in any case, or return null
+    public static SudokuDifficulty fromName(String name) {
+
+        for (SudokuDifficulty difficulty : values()) {
+            if (difficulty.name().equalsIgnoreCase(name)) {
+                return difficulty;
+            }
+        }
+
+        return null;
+    }
+}
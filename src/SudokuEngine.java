@@ -0,0 +1,347 @@
+package sudoku;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Filename:    SudokuEngine.java
+ * Purpose:     Solve sudoku puzzles from inside another program. Never
+ *              prints or exits: errors are thrown as SudokuExceptions and
+ *              each solve returns a SudokuResult. One engine can be shared
+ *              by any number of threads, and the solvers it uses are pooled
+ *              so that a solve only creates its result.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuEngine {
+
+    // Pool for multithreaded solves
+    private final ForkJoinPool pool;
+
+    // Results of earlier solves, or null to always search
+    private final SudokuResultCache cache;
+
+    // Scratch solvers not in use by any solve
+    private final ConcurrentLinkedQueue<Workspace> workspaces
+            = new ConcurrentLinkedQueue<>();
+
+    /* Solvers for the pool's worker threads, one for each combination of
+     * cell ordering and propagation.
+     */
+    private final List<ThreadLocal<SudokuBacktrackingSolver>> workerSolvers
+            = new ArrayList<>();
+
+    // The solvers one solve needs, created when first used
+    private static class Workspace {
+
+        private final SudokuBacktrackingSolver[] backtrackingSolvers
+                = new SudokuBacktrackingSolver[4];
+        private SudokuDancingLinksSolver dancingLinksSolver;
+        private final SudokuGeneralSolver[] generalSolvers
+                = new SudokuGeneralSolver[SudokuGrid.MAX_BOX_SIZE + 1];
+        private final SudokuCandidateMasks masks = new SudokuCandidateMasks();
+
+        private SudokuBacktrackingSolver getBacktrackingSolver(
+                SudokuSolveOptions options) {
+
+            int index = solverIndex(options);
+
+            if (this.backtrackingSolvers[index] == null) {
+                this.backtrackingSolvers[index] = new SudokuBacktrackingSolver(
+                        options.isUsingMinimumRemainingValues(),
+                        options.isUsingConstraintPropagation());
+            }
+
+            return this.backtrackingSolvers[index];
+        }
+
+        private SudokuDancingLinksSolver getDancingLinksSolver() {
+
+            if (this.dancingLinksSolver == null) {
+                this.dancingLinksSolver = new SudokuDancingLinksSolver();
+            }
+
+            return this.dancingLinksSolver;
+        }
+
+        private SudokuGeneralSolver getGeneralSolver(int boxSize) {
+
+            if (this.generalSolvers[boxSize] == null) {
+                this.generalSolvers[boxSize]
+                        = new SudokuGeneralSolver(boxSize);
+            }
+
+            return this.generalSolvers[boxSize];
+        }
+    }
+
+    // Uses the common fork/join pool for multithreaded solves
+    public SudokuEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SudokuEngine(ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    /* Solves answer from the cache when they can, and add to it when they
+     * cannot. The cache may be shared with other engines.
+     */
+    public SudokuEngine(ForkJoinPool pool, SudokuResultCache cache) {
+
+        this.pool = pool;
+        this.cache = cache;
+
+        for (int i = 0; i < 4; i++) {
+            final boolean useMinimumRemainingValues = (i & 2) != 0;
+            final boolean useConstraintPropagation = (i & 1) != 0;
+            this.workerSolvers.add(ThreadLocal.withInitial(
+                    () -> new SudokuBacktrackingSolver(
+                            useMinimumRemainingValues,
+                            useConstraintPropagation)));
+        }
+    }
+
+    private static int solverIndex(SudokuSolveOptions options) {
+        return (options.isUsingMinimumRemainingValues() ? 2 : 0)
+                + (options.isUsingConstraintPropagation() ? 1 : 0);
+    }
+
+    /* Read a puzzle given either as one line of 81 characters or as 9
+     * comma-separated rows, in the same formats as batch mode.
+     */
+    public static SudokuGrid parse(String text) throws SudokuParseException {
+
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        SudokuStreamParser parser = new SudokuStreamParser(
+                Channels.newChannel(new ByteArrayInputStream(bytes)),
+                Math.max(bytes.length, 1));
+
+        try {
+            if (!parser.readNext()) {
+                throw new SudokuParseException("Error: No puzzle found");
+            }
+        }
+        catch (IOException e) {
+            // Reading from an array does not fail
+            throw new UncheckedIOException(e);
+        }
+
+        if (!parser.isValid()) {
+            throw new SudokuParseException(parser.getError());
+        }
+
+        SudokuGrid grid = new SudokuGrid();
+        parser.copyGrid(grid);
+
+        return grid;
+    }
+
+    private static void validate(SudokuGrid grid, SudokuCandidateMasks masks)
+            throws SudokuInvalidGridException {
+
+        int side = grid.getSide();
+
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+
+            int val = grid.get(cell);
+
+            if (val < 0 || val > side) {
+                throw new SudokuInvalidGridException("Error: Square "
+                        + (cell + 1) + " has the value " + val
+                        + ", which is not between 0 and " + side);
+            }
+        }
+
+        if (grid.getBoxSize() == 3 ? hasClash(grid, masks) : hasClash(grid)) {
+            throw new SudokuInvalidGridException("Error: Values in the"
+                    + " initial grid are not valid.");
+        }
+    }
+
+    // True if two clues of a 9x9 grid share a value and a unit
+    private static boolean hasClash(SudokuGrid grid,
+                                    SudokuCandidateMasks masks) {
+
+        masks.clear();
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+
+            int val = grid.get(cell);
+
+            if (val != 0) {
+                if ((masks.getCandidates(cell)
+                        & SudokuCandidateMasks.valueBit(val)) == 0) {
+                    return true;
+                }
+                masks.place(cell, val);
+            }
+        }
+
+        return false;
+    }
+
+    // True if two clues of a grid of any size share a value and a unit
+    private static boolean hasClash(SudokuGrid grid) {
+
+        int boxSize = grid.getBoxSize();
+        int side = grid.getSide();
+        int[] rowValues = new int[side];
+        int[] colValues = new int[side];
+        int[] boxValues = new int[side];
+
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+
+                int val = grid.get(row, col);
+
+                if (val == 0) {
+                    continue;
+                }
+
+                int bit = 1 << (val - 1);
+                int box = boxSize * (row / boxSize) + col / boxSize;
+
+                if (((rowValues[row] | colValues[col] | boxValues[box])
+                        & bit) != 0) {
+                    return true;
+                }
+
+                rowValues[row] |= bit;
+                colValues[col] |= bit;
+                boxValues[box] |= bit;
+            }
+        }
+
+        return false;
+    }
+
+    /* Find the solutions of a grid of any supported size, with 0 for empty
+     * squares. The output format in the options is not used, and nor are
+     * the solver options for sizes other than 9x9. The grid is not changed.
+     */
+    public SudokuResult solve(SudokuGrid grid, SudokuSolveOptions options)
+            throws SudokuException {
+
+        long startTime = System.nanoTime();
+
+        Workspace workspace = this.workspaces.poll();
+        if (workspace == null) {
+            workspace = new Workspace();
+        }
+
+        try {
+            validate(grid, workspace.masks);
+
+            SudokuSolutionBuffer solutions = new SudokuSolutionBuffer(
+                    !options.isCountOnly(), options.getMaxSolutions(),
+                    options.getTimeLimitMillis(), grid.getBoxSize());
+            SudokuSolverStats stats = new SudokuSolverStats();
+            int deducedCount = 0;
+
+            // The cache only knows the symmetries of 9x9 grids
+            if (this.cache == null || grid.getBoxSize() != 3) {
+                deducedCount = this.runSolver(grid, options, workspace,
+                                              solutions, stats);
+            }
+            else {
+                SudokuResultCache.Key key = this.cache.getKey(grid);
+                if (!this.cache.lookup(key, solutions)) {
+                    deducedCount = this.runSolver(grid, options, workspace,
+                                                  solutions, stats);
+                    this.cache.store(key, solutions);
+                }
+            }
+
+            stats.countSolve();
+
+            SudokuResult.Status status = SudokuResult.Status.COMPLETE;
+            if (solutions.reachedMaxSolutions()) {
+                status = SudokuResult.Status.MAX_SOLUTIONS_REACHED;
+            }
+            else if (solutions.isTimedOut()) {
+                status = SudokuResult.Status.TIMED_OUT;
+            }
+
+            return new SudokuResult(status, solutions, deducedCount,
+                                    System.nanoTime() - startTime, stats);
+        }
+        catch (UncheckedIOException e) {
+            throw new SudokuException("Error: " + e.getMessage(),
+                                      e.getCause());
+        }
+        finally {
+            this.workspaces.offer(workspace);
+        }
+    }
+
+    /* Search for the solutions, adding the search counters to stats.
+     * Returns the number of cells filled by propagation before searching.
+     */
+    private int runSolver(SudokuGrid grid, SudokuSolveOptions options,
+                          Workspace workspace, SudokuSolutionBuffer solutions,
+                          SudokuSolverStats stats) {
+
+        long startTime = System.nanoTime();
+
+        // Other sizes have one solver, which runs on this thread
+        if (grid.getBoxSize() != 3) {
+            SudokuSolver solver = workspace.getGeneralSolver(
+                    grid.getBoxSize());
+            solver.solveAll(grid, solutions);
+            addSingleThreadStats(solver, startTime, stats);
+            return 0;
+        }
+
+        if (options.isUsingDancingLinks()) {
+            SudokuSolver solver = workspace.getDancingLinksSolver();
+            solver.solveAll(grid, solutions);
+            addSingleThreadStats(solver, startTime, stats);
+            return 0;
+        }
+
+        SudokuBacktrackingSolver solver
+                = workspace.getBacktrackingSolver(options);
+
+        if (!solver.load(grid)) {
+            addSingleThreadStats(solver, startTime, stats);
+            return 0;
+        }
+
+        // The tasks load the grid again, so they count the deductions
+        if (options.isUsingMultithreading()) {
+
+            SudokuSolverTask rootTask = new SudokuSolverTask(grid,
+                    this.workerSolvers.get(solverIndex(options)),
+                    options.getSplitDepth(), solutions);
+
+            this.pool.invoke(rootTask);
+            rootTask.collectStats(stats);
+        }
+        else {
+            solver.solve(solutions);
+            addSingleThreadStats(solver, startTime, stats);
+        }
+
+        return solver.getDeducedCount();
+    }
+
+    private static void addSingleThreadStats(SudokuSolver solver,
+                                             long startTime,
+                                             SudokuSolverStats stats) {
+
+        long elapsedTime = System.nanoTime() - startTime;
+
+        solver.addStatsTo(stats);
+        stats.addWorkerTime(Thread.currentThread().getName(), elapsedTime,
+                            stats.getNodeCount());
+    }
+}
@@ -0,0 +1,22 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuException.java
+ * Purpose:     Thrown by SudokuEngine when a puzzle cannot be read or
+ *              solved, in place of printing an error and exiting.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public SudokuException(String message) {
+        super(message);
+    }
+
+    public SudokuException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
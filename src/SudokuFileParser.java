@@ -9,7 +9,9 @@ import java.util.Scanner;
 /**
  * Filename:    SudokuFileParser.java
  * Purpose:     Parse a sudoku file given to the Sudoku application
- *              and return it as a 2D array of integers.
+ *              and return it as a sudoku grid. The grid may be 4x4, 9x9,
+ *              16x16 or 25x25, given by the number of rows in the file, and
+ *              each square holds a number of one or two digits.
  * 
  * @author      Andrew Blackwood
  * @version     1.0, 22/09/2016
@@ -26,18 +28,19 @@ public class SudokuFileParser {
      */
     private static final char[] FILE_CHARS_EMPTY_SQUARE = {'x','X'};
     
-    /* --------------------------
-       -- 9x9 Sudoku constants --
-       --------------------------*/
-    private static final int ROW_COUNT = 9;
-    private static final int DELIMITER_COUNT = 8;
+    // Most digits in the value of one square
+    private static final int MAX_VALUE_DIGITS = 2;
     
     private final File file;
     private ArrayList<String> fileLines;
-    private int[][] grid;
+    private SudokuGrid grid;
     private boolean parsedLines = false;
     private boolean cleaned = false;
     private boolean validated = false;
+    
+    // Rows of the grid, and the rows of each box
+    private int rowCount;
+    private int boxSize;
        
     public SudokuFileParser(File file) {  
         this.file = file;
@@ -86,12 +89,22 @@ public class SudokuFileParser {
         this.cleaned = true;
     }
     
+    // Work out the size of the grid from its number of rows
     private void validateLineCount() {   
-        if (this.fileLines.size() != ROW_COUNT){
-            ErrorHandler error = new ErrorHandler();
-            error.printAndExit("Error: Too many non-empty rows"
-                    + " in source file.", true, 0);
+        
+        this.rowCount = this.fileLines.size();
+        
+        for (int n = SudokuGrid.MIN_BOX_SIZE; n <= SudokuGrid.MAX_BOX_SIZE; 
+                n++) {
+            if (n * n == this.rowCount) {
+                this.boxSize = n;
+                return;
+            }
         }
+        
+        ErrorHandler error = new ErrorHandler();
+        error.printAndExit("Error: Source file must have 4, 9, 16 or 25"
+                + " non-empty rows.", true, 0);
     }
     
     private int countChars(String string, char value) {
@@ -108,9 +121,9 @@ public class SudokuFileParser {
     }
     
     private void validateDelimiterCounts() {       
-        for (int l = 1; l <= ROW_COUNT; l++) {
+        for (int l = 1; l <= this.rowCount; l++) {
             if (this.countChars(this.fileLines.get(l-1),FILE_DELIMITER) 
-                    != ROW_COUNT - 1) {
+                    != this.rowCount - 1) {
                 ErrorHandler error = new ErrorHandler();
                 error.printAndExit("Error: Wrong number of delimiters"
                         + " on line " + l, true, 0);
@@ -134,8 +147,10 @@ public class SudokuFileParser {
             }    
         }
       
-        String pattern = "(([0-9]|" + regexEmptyChars + ")?" + FILE_DELIMITER 
-                + "){" + DELIMITER_COUNT + "}?([0-9]|" + regexEmptyChars + ")?";
+        String value = "([0-9]{1," + MAX_VALUE_DIGITS + "}|" + regexEmptyChars 
+                + ")?";
+        String pattern = "(" + value + FILE_DELIMITER + "){" 
+                + (this.rowCount - 1) + "}?" + value;
                 
         return pattern;
     }
@@ -144,14 +159,28 @@ public class SudokuFileParser {
         
         String validPattern = getLinePattern();
         
-        for (int line = 1; line <= ROW_COUNT; line++){            
-            if (!this.fileLines.get(line-1).matches(validPattern)){
+        for (int line = 1; line <= this.rowCount; line++){            
+            if (!this.fileLines.get(line-1).matches(validPattern)
+                    || !this.hasValuesInRange(this.fileLines.get(line-1))){
                 ErrorHandler error = new ErrorHandler();
                 error.printAndExit("Error: Issue with source file"
                         + " on line " + line, true, 0);
             }
         }    
     }
+    
+    // Whether every value on a line matching the pattern fits the grid
+    private boolean hasValuesInRange(String line) {
+        
+        for (String token : line.split(String.valueOf(FILE_DELIMITER))) {
+            if (!token.isEmpty() && !isEmptySquareToken(token)
+                    && Integer.parseInt(token) > this.rowCount) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
         
     private void validate() {
         
@@ -166,7 +195,7 @@ public class SudokuFileParser {
         this.validated = true;
     }
     
-    private boolean isEmptySquareChar(char c) {
+    static boolean isEmptySquareChar(char c) {
         
         for (char test : FILE_CHARS_EMPTY_SQUARE) {
             if (c == test) {
@@ -177,46 +206,38 @@ public class SudokuFileParser {
         return c == '0';
     }
     
-    public int[][] parseToGrid() {
+    // Whether the text between two delimiters stands for an empty square
+    private static boolean isEmptySquareToken(String token) {
+        return token.isEmpty() || (token.length() == 1 
+                && isEmptySquareChar(token.charAt(0))) 
+                || Integer.parseInt(token) == 0;
+    }
+    
+    // Parse a cleaned and validated line of the file into a grid row
+    static void parseRow(String line, SudokuGrid grid, int row) {
+        
+        String[] tokens = line.split(String.valueOf(FILE_DELIMITER), -1);
+        
+        for (int col = 0; col < tokens.length; col++) {
+            if (isEmptySquareToken(tokens[col])) {
+                grid.set(row, col, 0);
+            }
+            else {
+                grid.set(row, col, Integer.parseInt(tokens[col]));
+            }
+        }
+    }
+    
+    public SudokuGrid parseToGrid() {
         
         if (!this.validated) {
             this.validate();
         }
         
-        this.grid = new int[ROW_COUNT][ROW_COUNT];
+        this.grid = new SudokuGrid(this.boxSize);
         
-        for (int i = 1; i <= ROW_COUNT; i++) {
-            
-            String line = this.fileLines.get(i-1);
-            int col = 0;
-            boolean lastWasDelimiter = true;
-            
-            for (int j = 1; j <= line.length(); j++) {
-                
-                char c = line.charAt(j-1);
-                
-                if (c != FILE_DELIMITER) {                     
-                    
-                    if (isEmptySquareChar(c)) {
-                        this.grid[i-1][col] = 0;
-                    }
-                    else {  
-                        this.grid[i-1][col] = Character.getNumericValue(c);
-                    }  
-                    
-                    col++;
-                    lastWasDelimiter = false;
-                }
-                else {      
-                    if (lastWasDelimiter) {
-                        this.grid[i-1][col] = 0;
-                        col++;
-                    }
-                    else {
-                        lastWasDelimiter = true;
-                    }    
-                }
-            }
+        for (int i = 1; i <= this.rowCount; i++) {
+            parseRow(this.fileLines.get(i-1), this.grid, i-1);
         }
         
         return this.grid;
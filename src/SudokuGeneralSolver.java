@@ -0,0 +1,353 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuGeneralSolver.java
+ * Purpose:     Find the solutions to a sudoku grid of any supported size,
+ *              such as 4x4, 16x16 or 25x25, by always branching on the empty
+ *              cell with fewest candidates and filling naked and hidden
+ *              singles after every value it tries. Candidates are kept as
+ *              one int mask per cell, wide enough for 25 values. 9x9 grids
+ *              are left to the dedicated solvers, which are faster on them.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuGeneralSolver implements SudokuSolver {
+
+    private final int boxSize;
+    private final int side;
+    private final int cellCount;
+
+    // Mask with a bit for every value, value v being bit v - 1
+    private final int allValues;
+
+    // Cells of every row, column and box, and the other cells that share
+    // one of them with each cell
+    private final int[][] units;
+    private final int[][] peers;
+
+    // Candidates of every cell, and its value or 0, for each search depth
+    private int[][] candidateStack = new int[0][];
+    private int[][] valueStack = new int[0][];
+
+    // Cells given a value but not yet removed from their peers
+    private final int[] queue;
+    private int queueLength;
+
+    private final SudokuGrid solution;
+    private SudokuSolutionSink sink;
+
+    // Search counters since the grid was loaded, see SudokuSolverStats
+    private long nodeCount;
+    private long rejectedCount;
+    private long backtrackCount;
+    private long fillCount;
+    private int maxDepth;
+
+    public SudokuGeneralSolver(int boxSize) {
+
+        this.boxSize = boxSize;
+        this.side = boxSize * boxSize;
+        this.cellCount = this.side * this.side;
+        this.allValues = (1 << this.side) - 1;
+        this.queue = new int[this.cellCount];
+        this.solution = new SudokuGrid(boxSize);
+
+        this.units = new int[3 * this.side][this.side];
+
+        for (int i = 0; i < this.side; i++) {
+            int boxRow = boxSize * (i / boxSize);
+            int boxCol = boxSize * (i % boxSize);
+            for (int j = 0; j < this.side; j++) {
+                this.units[i][j] = this.side * i + j;
+                this.units[this.side + i][j] = this.side * j + i;
+                this.units[2 * this.side + i][j] = this.side
+                        * (boxRow + j / boxSize) + boxCol + j % boxSize;
+            }
+        }
+
+        int peerCount = 2 * (this.side - 1) + (boxSize - 1) * (boxSize - 1);
+        this.peers = new int[this.cellCount][peerCount];
+
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            int count = 0;
+            for (int other = 0; other < this.cellCount; other++) {
+                if (other != cell && this.sharesUnit(cell, other)) {
+                    this.peers[cell][count++] = other;
+                }
+            }
+        }
+    }
+
+    private boolean sharesUnit(int cell, int other) {
+
+        int row = cell / this.side;
+        int col = cell % this.side;
+        int otherRow = other / this.side;
+        int otherCol = other % this.side;
+
+        return row == otherRow || col == otherCol
+                || (row / this.boxSize == otherRow / this.boxSize
+                    && col / this.boxSize == otherCol / this.boxSize);
+    }
+
+    public int getBoxSize() {
+        return this.boxSize;
+    }
+
+    // Make sure there is state for every depth up to the given one
+    private void ensureDepth(int depth) {
+
+        if (depth < this.candidateStack.length) {
+            return;
+        }
+
+        int length = Math.min(this.cellCount + 1,
+                Math.max(depth + 1, 2 * this.candidateStack.length));
+        int[][] candidates = new int[length][];
+        int[][] values = new int[length][];
+
+        System.arraycopy(this.candidateStack, 0, candidates, 0,
+                         this.candidateStack.length);
+        System.arraycopy(this.valueStack, 0, values, 0,
+                         this.valueStack.length);
+
+        for (int i = this.candidateStack.length; i < length; i++) {
+            candidates[i] = new int[this.cellCount];
+            values[i] = new int[this.cellCount];
+        }
+
+        this.candidateStack = candidates;
+        this.valueStack = values;
+    }
+
+    @Override
+    public void solveAll(SudokuGrid grid, SudokuSolutionSink sink) {
+
+        if (grid.getBoxSize() != this.boxSize) {
+            throw new IllegalArgumentException("Solver is for box size "
+                    + this.boxSize + " but grid has box size "
+                    + grid.getBoxSize());
+        }
+
+        this.nodeCount = 0;
+        this.rejectedCount = 0;
+        this.backtrackCount = 0;
+        this.fillCount = 0;
+        this.maxDepth = 0;
+
+        if (this.load(grid)) {
+            this.sink = sink;
+            this.search(0);
+        }
+    }
+
+    @Override
+    public void addStatsTo(SudokuSolverStats stats) {
+        stats.addCounts(this.nodeCount, this.rejectedCount,
+                        this.backtrackCount, this.fillCount, this.maxDepth);
+    }
+
+    /* Set up the state at depth 0 from the clues and fill every single it
+     * leads to. Returns false if the grid has no solution.
+     */
+    private boolean load(SudokuGrid grid) {
+
+        this.ensureDepth(0);
+
+        int[] candidates = this.candidateStack[0];
+        int[] values = this.valueStack[0];
+
+        this.queueLength = 0;
+
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            candidates[cell] = this.allValues;
+            values[cell] = 0;
+        }
+
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            int val = grid.get(cell);
+            if (val != 0 && !this.assign(candidates, values, cell, val)) {
+                return false;
+            }
+        }
+
+        return this.propagate(candidates, values);
+    }
+
+    private boolean assign(int[] candidates, int[] values, int cell,
+                           int val) {
+
+        int bit = 1 << (val - 1);
+
+        if ((candidates[cell] & bit) == 0) {
+            return false;
+        }
+
+        candidates[cell] = bit;
+        values[cell] = val;
+        this.queue[this.queueLength++] = cell;
+
+        return true;
+    }
+
+    /* Remove the value of every cell in the queue from its peers, filling
+     * naked singles as they appear, then fill hidden singles, until
+     * nothing more can be filled. Returns false on a contradiction.
+     */
+    private boolean propagate(int[] candidates, int[] values) {
+
+        do {
+            while (this.queueLength > 0) {
+
+                int cell = this.queue[--this.queueLength];
+                int bit = candidates[cell];
+
+                for (int peer : this.peers[cell]) {
+
+                    int peerCandidates = candidates[peer];
+
+                    if ((peerCandidates & bit) == 0) {
+                        continue;
+                    }
+
+                    if (values[peer] != 0) {
+                        return false;
+                    }
+
+                    peerCandidates &= ~bit;
+
+                    if (peerCandidates == 0) {
+                        return false;
+                    }
+
+                    candidates[peer] = peerCandidates;
+
+                    if ((peerCandidates & (peerCandidates - 1)) == 0) {
+                        values[peer] = Integer.numberOfTrailingZeros(
+                                peerCandidates) + 1;
+                        this.queue[this.queueLength++] = peer;
+                        this.fillCount++;
+                    }
+                }
+            }
+
+            if (!this.fillHiddenSingles(candidates, values)) {
+                return false;
+            }
+        }
+        while (this.queueLength > 0);
+
+        return true;
+    }
+
+    /* Give each value that has only one place left in a row, column or
+     * box that place. Returns false if a value has no place left.
+     */
+    private boolean fillHiddenSingles(int[] candidates, int[] values) {
+
+        for (int[] unit : this.units) {
+
+            int once = 0;
+            int twice = 0;
+
+            for (int cell : unit) {
+                twice |= once & candidates[cell];
+                once |= candidates[cell];
+            }
+
+            if (once != this.allValues) {
+                return false;
+            }
+
+            int hidden = once & ~twice;
+
+            if (hidden == 0) {
+                continue;
+            }
+
+            for (int cell : unit) {
+
+                int bit = candidates[cell] & hidden;
+
+                if (bit == 0 || values[cell] != 0) {
+                    continue;
+                }
+
+                // Two values that can only go in the same cell
+                if ((bit & (bit - 1)) != 0) {
+                    return false;
+                }
+
+                candidates[cell] = bit;
+                values[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+                this.queue[this.queueLength++] = cell;
+                this.fillCount++;
+            }
+        }
+
+        return true;
+    }
+
+    private void search(int depth) {
+
+        int[] candidates = this.candidateStack[depth];
+        int[] values = this.valueStack[depth];
+
+        // Find the empty cell with the fewest candidates
+        int cell = -1;
+        int bestCount = this.side + 1;
+
+        for (int i = 0; i < this.cellCount; i++) {
+            if (values[i] == 0) {
+                int count = Integer.bitCount(candidates[i]);
+                if (count < bestCount) {
+                    cell = i;
+                    bestCount = count;
+                    if (count <= 2) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (cell == -1) {
+            for (int i = 0; i < this.cellCount; i++) {
+                this.solution.set(i, values[i]);
+            }
+            this.sink.addSolution(this.solution);
+            return;
+        }
+
+        this.nodeCount++;
+        this.maxDepth = Math.max(this.maxDepth, depth);
+        this.rejectedCount += this.side - bestCount;
+
+        this.ensureDepth(depth + 1);
+
+        int[] nextCandidates = this.candidateStack[depth + 1];
+        int[] nextValues = this.valueStack[depth + 1];
+        int remaining = candidates[cell];
+
+        while (remaining != 0 && !this.sink.isStopped()) {
+
+            int bit = remaining & -remaining;
+            remaining ^= bit;
+
+            System.arraycopy(candidates, 0, nextCandidates, 0,
+                             this.cellCount);
+            System.arraycopy(values, 0, nextValues, 0, this.cellCount);
+            this.queueLength = 0;
+
+            if (this.assign(nextCandidates, nextValues, cell,
+                            Integer.numberOfTrailingZeros(bit) + 1)
+                    && this.propagate(nextCandidates, nextValues)) {
+                this.search(depth + 1);
+            }
+            else {
+                this.rejectedCount++;
+                this.backtrackCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package sudoku;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Filename:    SudokuGrade.java
+ * Purpose:     The grade SudokuGrader gives a puzzle: its rating, the
+ *              hardest technique it needed, the steps taken if they were
+ *              traced, and the counters of the grading.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuGrade {
+
+    private final boolean solved;
+    private final SudokuTechnique hardestTechnique;
+    private final int guessDepth;
+    private final List<String> steps;
+    private final SudokuGradingStats stats;
+    private final SudokuGrid solution;
+
+    public SudokuGrade(boolean solved, SudokuTechnique hardestTechnique,
+                       int guessDepth, List<String> steps,
+                       SudokuGradingStats stats, SudokuGrid solution) {
+        this.solved = solved;
+        this.hardestTechnique = hardestTechnique;
+        this.guessDepth = guessDepth;
+        this.steps = Collections.unmodifiableList(steps);
+        this.stats = stats;
+        this.solution = solution;
+    }
+
+    // False if the puzzle has no solution
+    public boolean isSolved() {
+        return this.solved;
+    }
+
+    // Hardest technique needed, or null if none was needed or no solution
+    public SudokuTechnique getHardestTechnique() {
+        return this.hardestTechnique;
+    }
+
+    // Most levels of guesses inside one another, or 0 if none were needed
+    public int getGuessDepth() {
+        return this.guessDepth;
+    }
+
+    /* Rating of the hardest technique needed, plus 1.0 for each level of
+     * guesses inside another. 0 if no technique was needed or the puzzle
+     * has no solution.
+     */
+    public double getRating() {
+
+        if (!this.solved || this.hardestTechnique == null) {
+            return 0;
+        }
+
+        if (this.hardestTechnique == SudokuTechnique.BIFURCATION) {
+            return this.hardestTechnique.getRating() + this.guessDepth - 1;
+        }
+
+        return this.hardestTechnique.getRating();
+    }
+
+    // Each step in the order taken, or none if the grader was not tracing
+    public List<String> getSteps() {
+        return this.steps;
+    }
+
+    public SudokuGradingStats getStats() {
+        return this.stats;
+    }
+
+    // Solution found, or null if there is none
+    public SudokuGrid getSolution() {
+        return this.solution;
+    }
+}
@@ -0,0 +1,785 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filename:    SudokuGrader.java
+ * Purpose:     Grade a 9x9 puzzle by solving it the way a person would:
+ *              each step uses the easiest technique in SudokuTechnique that
+ *              places a value or removes a candidate, and a value is only
+ *              guessed when none of them does. The puzzle is rated by the
+ *              hardest technique it needed, so the grade does not depend on
+ *              how fast the machine is. Not safe to share between threads.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuGrader {
+
+    private static final int ALL_VALUES = SudokuCandidateMasks.ALL_VALUES;
+
+    // Techniques tried in order at every step, all but guessing
+    private static final SudokuTechnique[] LADDER = {
+        SudokuTechnique.HIDDEN_SINGLE,
+        SudokuTechnique.NAKED_SINGLE,
+        SudokuTechnique.LOCKED_CANDIDATES,
+        SudokuTechnique.NAKED_PAIR,
+        SudokuTechnique.X_WING,
+        SudokuTechnique.HIDDEN_PAIR,
+        SudokuTechnique.NAKED_TRIPLE,
+        SudokuTechnique.SWORDFISH,
+        SudokuTechnique.HIDDEN_TRIPLE,
+        SudokuTechnique.NAKED_QUAD,
+        SudokuTechnique.JELLYFISH,
+        SudokuTechnique.HIDDEN_QUAD
+    };
+
+    /* The cells where each box meets each of its rows and columns, the
+     * rest of the box and the rest of the line, with the name of the line
+     */
+    private static final int[][] MEETING_CELLS = new int[54][];
+    private static final int[][] BOX_REST_CELLS = new int[54][];
+    private static final int[][] LINE_REST_CELLS = new int[54][];
+    private static final String[] MEETING_NAMES = new String[54];
+
+    static {
+        int meeting = 0;
+
+        for (int box = 0; box < 9; box++) {
+            for (int line = 0; line < 18; line++) {
+
+                int[] lineCells = SudokuPropagator.UNITS[line];
+                int[] boxCells = SudokuPropagator.UNITS[18 + box];
+
+                if (!shares(lineCells, boxCells)) {
+                    continue;
+                }
+
+                MEETING_CELLS[meeting] = cellsIn(boxCells, lineCells, true);
+                BOX_REST_CELLS[meeting] = cellsIn(boxCells, lineCells, false);
+                LINE_REST_CELLS[meeting] = cellsIn(lineCells, boxCells,
+                                                   false);
+                MEETING_NAMES[meeting] = "box " + (box + 1) + " and "
+                        + (line < 9 ? "row " + (line + 1)
+                                    : "column " + (line - 8));
+                meeting++;
+            }
+        }
+    }
+
+    private final boolean tracing;
+
+    // Values and candidates at each level of guesses, with the empty cells
+    // left; a filled cell has no candidates
+    private final int[][] valueStack = new int[82][81];
+    private final int[][] candidateStack = new int[82][81];
+    private final int[] emptyCounts = new int[82];
+
+    // Those of the current level
+    private int[] values;
+    private int[] candidates;
+    private int depth;
+
+    // Set when a step shows that the current level has no solution
+    private boolean failed;
+
+    // Per grade
+    private SudokuGradingStats stats;
+    private List<String> steps;
+    private SudokuTechnique hardest;
+    private int maxGuessDepth;
+
+    // Cells or values making up a subset or fish, and their masks
+    private final int[] items = new int[9];
+    private final int[] itemMasks = new int[9];
+
+    // Candidates removed by the current step, if tracing
+    private final StringBuilder removals = new StringBuilder();
+
+    // The steps are only written out if tracing is true
+    public SudokuGrader(boolean tracing) {
+        this.tracing = tracing;
+    }
+
+    public SudokuGrade grade(SudokuGrid grid) {
+
+        this.stats = new SudokuGradingStats();
+        this.steps = new ArrayList<>();
+        this.hardest = null;
+        this.maxGuessDepth = 0;
+        this.failed = false;
+        this.setDepth(0);
+
+        for (int cell = 0; cell < 81; cell++) {
+            this.values[cell] = 0;
+            this.candidates[cell] = ALL_VALUES;
+        }
+        this.emptyCounts[0] = 81;
+
+        for (int cell = 0; cell < 81 && !this.failed; cell++) {
+            if (grid.get(cell) != 0) {
+                this.place(cell,
+                           SudokuCandidateMasks.valueBit(grid.get(cell)),
+                           null);
+            }
+        }
+
+        boolean solved = !this.failed && this.solveLevel();
+        SudokuGrid solution = null;
+
+        if (solved) {
+            solution = new SudokuGrid();
+            for (int cell = 0; cell < 81; cell++) {
+                solution.set(cell, this.values[cell]);
+            }
+        }
+        else {
+            this.hardest = null;
+        }
+
+        this.stats.countGrade(solved, this.hardest);
+
+        return new SudokuGrade(solved, this.hardest, this.maxGuessDepth,
+                               this.steps, this.stats, solution);
+    }
+
+    private void setDepth(int depth) {
+        this.depth = depth;
+        this.values = this.valueStack[depth];
+        this.candidates = this.candidateStack[depth];
+    }
+
+    /* Take steps until the current level is solved or found to have no
+     * solution, guessing a value when no technique applies. Returns true
+     * once solved, leaving the current level at the solution.
+     */
+    private boolean solveLevel() {
+
+        while (true) {
+
+            if (this.failed) {
+                return false;
+            }
+
+            if (this.emptyCounts[this.depth] == 0) {
+                return true;
+            }
+
+            boolean progress = false;
+
+            for (SudokuTechnique technique : LADDER) {
+                if (this.tryTechnique(technique) > 0 || this.failed) {
+                    progress = true;
+                    break;
+                }
+            }
+
+            if (progress) {
+                continue;
+            }
+
+            long startTime = System.nanoTime();
+            int cell = SudokuCandidateMasks.getBestEmptyCell(
+                    this.values, this.candidates);
+            int bit = this.candidates[cell] & -this.candidates[cell];
+            this.stats.addTry(SudokuTechnique.BIFURCATION, 1,
+                              System.nanoTime() - startTime);
+            this.hardest = SudokuTechnique.BIFURCATION;
+
+            if (this.tracing) {
+                this.steps.add("Bifurcation: try " + cellName(cell) + "="
+                        + SudokuCandidateMasks.bitValue(bit));
+            }
+
+            int level = this.depth;
+            System.arraycopy(this.values, 0, this.valueStack[level + 1], 0,
+                             81);
+            System.arraycopy(this.candidates, 0,
+                             this.candidateStack[level + 1], 0, 81);
+            this.emptyCounts[level + 1] = this.emptyCounts[level];
+            this.setDepth(level + 1);
+            this.maxGuessDepth = Math.max(this.maxGuessDepth, level + 1);
+
+            if (this.place(cell, bit, null) && this.solveLevel()) {
+                return true;
+            }
+
+            // The guess was wrong, so that value is ruled out
+            this.setDepth(level);
+            this.failed = false;
+
+            if (this.tracing) {
+                this.steps.add("Bifurcation: " + cellName(cell) + "="
+                        + SudokuCandidateMasks.bitValue(bit)
+                        + " leads to a contradiction, so " + cellName(cell)
+                        + "<>" + SudokuCandidateMasks.bitValue(bit));
+            }
+
+            this.remove(cell, bit);
+        }
+    }
+
+    // Try a technique once, returning the number of steps it made
+    private int tryTechnique(SudokuTechnique technique) {
+
+        long startTime = System.nanoTime();
+        int stepCount;
+
+        switch (technique) {
+            case HIDDEN_SINGLE:
+                stepCount = this.fillHiddenSingles();
+                break;
+            case NAKED_SINGLE:
+                stepCount = this.fillNakedSingles();
+                break;
+            case LOCKED_CANDIDATES:
+                stepCount = this.findLockedCandidates();
+                break;
+            case NAKED_PAIR:
+                stepCount = this.findNakedSubset(2, technique);
+                break;
+            case NAKED_TRIPLE:
+                stepCount = this.findNakedSubset(3, technique);
+                break;
+            case NAKED_QUAD:
+                stepCount = this.findNakedSubset(4, technique);
+                break;
+            case HIDDEN_PAIR:
+                stepCount = this.findHiddenSubset(2, technique);
+                break;
+            case HIDDEN_TRIPLE:
+                stepCount = this.findHiddenSubset(3, technique);
+                break;
+            case HIDDEN_QUAD:
+                stepCount = this.findHiddenSubset(4, technique);
+                break;
+            case X_WING:
+                stepCount = this.findFish(2, technique);
+                break;
+            case SWORDFISH:
+                stepCount = this.findFish(3, technique);
+                break;
+            case JELLYFISH:
+                stepCount = this.findFish(4, technique);
+                break;
+            default:
+                throw new IllegalArgumentException("Not a step technique: "
+                        + technique);
+        }
+
+        this.stats.addTry(technique, stepCount,
+                          System.nanoTime() - startTime);
+
+        if (stepCount > 0 && (this.hardest == null
+                || technique.ordinal() > this.hardest.ordinal())) {
+            this.hardest = technique;
+        }
+
+        return stepCount;
+    }
+
+    /* Place the value of a bit in a cell and remove it from the cell's
+     * peers, recording the step if technique is not null. Returns false
+     * and sets failed if the value cannot go there or a peer is left with
+     * no candidates.
+     */
+    private boolean place(int cell, int bit, SudokuTechnique technique) {
+
+        if ((this.candidates[cell] & bit) == 0) {
+            this.failed = true;
+            return false;
+        }
+
+        this.values[cell] = SudokuCandidateMasks.bitValue(bit);
+        this.candidates[cell] = 0;
+        this.emptyCounts[this.depth]--;
+
+        if (technique != null && this.tracing) {
+            this.steps.add(technique.getDisplayName() + ": " + cellName(cell)
+                    + "=" + this.values[cell]);
+        }
+
+        for (int peer : SudokuPropagator.PEERS[cell]) {
+            if ((this.candidates[peer] & bit) != 0) {
+                this.candidates[peer] ^= bit;
+                if (this.candidates[peer] == 0) {
+                    this.failed = true;
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /* Remove candidates from an empty cell, noting them if tracing.
+     * Returns true if any were there. Sets failed if none are left.
+     */
+    private boolean remove(int cell, int mask) {
+
+        int removed = this.candidates[cell] & mask;
+
+        if (removed == 0) {
+            return false;
+        }
+
+        this.candidates[cell] ^= removed;
+
+        if (this.candidates[cell] == 0) {
+            this.failed = true;
+        }
+
+        if (this.tracing) {
+            while (removed != 0) {
+                int bit = removed & -removed;
+                removed ^= bit;
+                this.removals.append(' ').append(cellName(cell)).append("<>")
+                    .append(SudokuCandidateMasks.bitValue(bit));
+            }
+        }
+
+        return true;
+    }
+
+    // Record a step that removed the candidates noted since the last one
+    private void addRemovalStep(SudokuTechnique technique, String what) {
+
+        if (this.tracing) {
+            this.steps.add(technique.getDisplayName() + " " + what + ":"
+                    + this.removals);
+            this.removals.setLength(0);
+        }
+    }
+
+    private int fillHiddenSingles() {
+
+        int stepCount = 0;
+
+        for (int[] unit : SudokuPropagator.UNITS) {
+
+            int placed = 0;
+            int seenOnce = 0;
+            int seenTwice = 0;
+
+            for (int cell : unit) {
+                if (this.values[cell] != 0) {
+                    placed |= SudokuCandidateMasks.valueBit(this.values[cell]);
+                }
+                else {
+                    seenTwice |= seenOnce & this.candidates[cell];
+                    seenOnce |= this.candidates[cell];
+                }
+            }
+
+            if ((placed | seenOnce) != ALL_VALUES) {
+                this.failed = true;
+                return stepCount;
+            }
+
+            int singles = seenOnce & ~seenTwice;
+
+            while (singles != 0) {
+
+                int bit = singles & -singles;
+                singles ^= bit;
+
+                int single = -1;
+
+                for (int cell : unit) {
+                    if ((this.candidates[cell] & bit) != 0) {
+                        single = cell;
+                        break;
+                    }
+                }
+
+                // An earlier single in the unit took its only place
+                if (single == -1) {
+                    this.failed = true;
+                    return stepCount;
+                }
+
+                if (!this.place(single, bit, SudokuTechnique.HIDDEN_SINGLE)) {
+                    return stepCount;
+                }
+
+                stepCount++;
+            }
+        }
+
+        return stepCount;
+    }
+
+    private int fillNakedSingles() {
+
+        int stepCount = 0;
+
+        for (int cell = 0; cell < 81; cell++) {
+
+            int cellCandidates = this.candidates[cell];
+
+            if (this.values[cell] == 0
+                    && (cellCandidates & (cellCandidates - 1)) == 0) {
+                if (!this.place(cell, cellCandidates,
+                                SudokuTechnique.NAKED_SINGLE)) {
+                    return stepCount;
+                }
+                stepCount++;
+            }
+        }
+
+        return stepCount;
+    }
+
+    /* Pointing: a value whose places in a box are all on one line can go
+     * nowhere else on that line. Claiming: a value whose places on a line
+     * are all in one box can go nowhere else in that box.
+     */
+    private int findLockedCandidates() {
+
+        for (int meeting = 0; meeting < MEETING_CELLS.length; meeting++) {
+
+            int inMeeting = this.unionOf(MEETING_CELLS[meeting]);
+            int inBoxRest = this.unionOf(BOX_REST_CELLS[meeting]);
+            int inLineRest = this.unionOf(LINE_REST_CELLS[meeting]);
+
+            int pointing = inMeeting & ~inBoxRest & inLineRest;
+            int claiming = inMeeting & ~inLineRest & inBoxRest;
+            int locked = pointing != 0 ? pointing : claiming;
+
+            if (locked == 0) {
+                continue;
+            }
+
+            int bit = locked & -locked;
+            int[] others = pointing != 0 ? LINE_REST_CELLS[meeting]
+                                         : BOX_REST_CELLS[meeting];
+
+            for (int cell : others) {
+                this.remove(cell, bit);
+            }
+
+            this.addRemovalStep(SudokuTechnique.LOCKED_CANDIDATES,
+                    SudokuCandidateMasks.bitValue(bit) + " in "
+                    + MEETING_NAMES[meeting]);
+
+            return 1;
+        }
+
+        return 0;
+    }
+
+    private int unionOf(int[] cells) {
+
+        int union = 0;
+
+        for (int cell : cells) {
+            union |= this.candidates[cell];
+        }
+
+        return union;
+    }
+
+    /* A set of cells in a unit holding only as many values between them
+     * as there are cells. Cells with more candidates than the size of the
+     * set cannot be part of one.
+     */
+    private int findNakedSubset(int size, SudokuTechnique technique) {
+
+        for (int[] unit : SudokuPropagator.UNITS) {
+
+            int itemCount = 0;
+
+            for (int cell : unit) {
+                int count = Integer.bitCount(this.candidates[cell]);
+                if (this.values[cell] == 0 && count <= size) {
+                    this.items[itemCount] = cell;
+                    this.itemMasks[itemCount] = this.candidates[cell];
+                    itemCount++;
+                }
+            }
+
+            for (int set = (1 << size) - 1; set < (1 << itemCount);
+                    set = nextSet(set)) {
+
+                int union = this.unionOfItems(set);
+
+                if (Integer.bitCount(union) != size) {
+                    continue;
+                }
+
+                boolean changed = false;
+
+                for (int cell : unit) {
+                    if (!this.isItem(cell, set)) {
+                        changed |= this.remove(cell, union);
+                    }
+                }
+
+                if (changed) {
+                    this.addRemovalStep(technique, digits(union) + " in "
+                            + this.itemCellNames(set));
+                    return 1;
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    /* A set of values in a unit with only as many places between them as
+     * there are values, so those places can hold nothing else
+     */
+    private int findHiddenSubset(int size, SudokuTechnique technique) {
+
+        for (int[] unit : SudokuPropagator.UNITS) {
+
+            int itemCount = 0;
+
+            for (int val = 1; val <= 9; val++) {
+
+                int bit = SudokuCandidateMasks.valueBit(val);
+                int places = 0;
+
+                for (int i = 0; i < 9; i++) {
+                    if ((this.candidates[unit[i]] & bit) != 0) {
+                        places |= 1 << i;
+                    }
+                }
+
+                int count = Integer.bitCount(places);
+
+                if (count >= 2 && count <= size) {
+                    this.items[itemCount] = bit;
+                    this.itemMasks[itemCount] = places;
+                    itemCount++;
+                }
+            }
+
+            for (int set = (1 << size) - 1; set < (1 << itemCount);
+                    set = nextSet(set)) {
+
+                int places = this.unionOfItems(set);
+
+                if (Integer.bitCount(places) != size) {
+                    continue;
+                }
+
+                int kept = 0;
+
+                for (int i = 0; i < itemCount; i++) {
+                    if ((set & (1 << i)) != 0) {
+                        kept |= this.items[i];
+                    }
+                }
+
+                boolean changed = false;
+                StringBuilder cellNames = new StringBuilder();
+
+                for (int i = 0; i < 9; i++) {
+                    if ((places & (1 << i)) != 0) {
+                        changed |= this.remove(unit[i], ~kept);
+                        if (this.tracing) {
+                            cellNames.append(cellNames.length() > 0 ? " " : "")
+                                .append(cellName(unit[i]));
+                        }
+                    }
+                }
+
+                if (changed) {
+                    this.addRemovalStep(technique, digits(kept) + " in "
+                            + cellNames);
+                    return 1;
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    /* A value whose places in a set of rows all lie in as many columns,
+     * so it can go nowhere else in those columns, or the same with rows
+     * and columns swapped
+     */
+    private int findFish(int size, SudokuTechnique technique) {
+
+        for (int val = 1; val <= 9; val++) {
+
+            int bit = SudokuCandidateMasks.valueBit(val);
+
+            for (int byColumn = 0; byColumn < 2; byColumn++) {
+
+                int itemCount = 0;
+
+                for (int line = 0; line < 9; line++) {
+
+                    int places = 0;
+
+                    for (int across = 0; across < 9; across++) {
+                        int cell = byColumn == 0 ? 9 * line + across
+                                                 : 9 * across + line;
+                        if ((this.candidates[cell] & bit) != 0) {
+                            places |= 1 << across;
+                        }
+                    }
+
+                    int count = Integer.bitCount(places);
+
+                    if (count >= 2 && count <= size) {
+                        this.items[itemCount] = line;
+                        this.itemMasks[itemCount] = places;
+                        itemCount++;
+                    }
+                }
+
+                for (int set = (1 << size) - 1; set < (1 << itemCount);
+                        set = nextSet(set)) {
+
+                    int places = this.unionOfItems(set);
+
+                    if (Integer.bitCount(places) != size) {
+                        continue;
+                    }
+
+                    int baseLines = 0;
+
+                    for (int i = 0; i < itemCount; i++) {
+                        if ((set & (1 << i)) != 0) {
+                            baseLines |= 1 << this.items[i];
+                        }
+                    }
+
+                    boolean changed = false;
+
+                    for (int across = 0; across < 9; across++) {
+                        if ((places & (1 << across)) == 0) {
+                            continue;
+                        }
+                        for (int line = 0; line < 9; line++) {
+                            if ((baseLines & (1 << line)) == 0) {
+                                changed |= this.remove(byColumn == 0
+                                        ? 9 * line + across
+                                        : 9 * across + line, bit);
+                            }
+                        }
+                    }
+
+                    if (changed) {
+                        String[] names = byColumn == 0
+                                ? new String[] {"rows", "columns"}
+                                : new String[] {"columns", "rows"};
+                        this.addRemovalStep(technique, val + " in "
+                                + names[0] + " " + digits(baseLines)
+                                + " and " + names[1] + " "
+                                + digits(places));
+                        return 1;
+                    }
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    // Next larger set of items with as many members, by Gosper's hack
+    private static int nextSet(int set) {
+        int lowest = set & -set;
+        int carried = set + lowest;
+        return (((carried ^ set) >>> 2) / lowest) | carried;
+    }
+
+    private int unionOfItems(int set) {
+
+        int union = 0;
+
+        for (int i = 0; set >>> i != 0; i++) {
+            if ((set & (1 << i)) != 0) {
+                union |= this.itemMasks[i];
+            }
+        }
+
+        return union;
+    }
+
+    private boolean isItem(int cell, int set) {
+
+        for (int i = 0; set >>> i != 0; i++) {
+            if ((set & (1 << i)) != 0 && this.items[i] == cell) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private String itemCellNames(int set) {
+
+        StringBuilder names = new StringBuilder();
+
+        if (this.tracing) {
+            for (int i = 0; set >>> i != 0; i++) {
+                if ((set & (1 << i)) != 0) {
+                    names.append(names.length() > 0 ? " " : "")
+                        .append(cellName(this.items[i]));
+                }
+            }
+        }
+
+        return names.toString();
+    }
+
+    private static String cellName(int cell) {
+        return "r" + (cell / 9 + 1) + "c" + (cell % 9 + 1);
+    }
+
+    // The values of a mask's bits, as in "17" for 1 and 7
+    private static String digits(int mask) {
+
+        StringBuilder text = new StringBuilder();
+
+        while (mask != 0) {
+            int bit = mask & -mask;
+            mask ^= bit;
+            text.append(SudokuCandidateMasks.bitValue(bit));
+        }
+
+        return text.toString();
+    }
+
+    private static boolean shares(int[] first, int[] second) {
+
+        for (int cell : first) {
+            if (contains(second, cell)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+
+        for (int other : cells) {
+            if (other == cell) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // The cells of one unit that are, or are not, also in another
+    private static int[] cellsIn(int[] cells, int[] other, boolean shared) {
+
+        int[] result = new int[shared ? 3 : 6];
+        int count = 0;
+
+        for (int cell : cells) {
+            if (contains(other, cell) == shared) {
+                result[count++] = cell;
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuGradingStats.java
+ * Purpose:     Counters describing the work done by SudokuGrader: how many
+ *              times each technique was tried, how many steps it made and
+ *              how long it ran, and how many puzzles needed each technique
+ *              at the hardest. Not safe to share between threads; each
+ *              thread counts into its own and the results are added
+ *              together at the end.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuGradingStats {
+
+    private static final SudokuTechnique[] TECHNIQUES
+            = SudokuTechnique.values();
+
+    private long gradeCount = 0;
+    private long unsolvedCount = 0;
+    private final long[] tryCounts = new long[TECHNIQUES.length];
+    private final long[] stepCounts = new long[TECHNIQUES.length];
+    private final long[] nanos = new long[TECHNIQUES.length];
+
+    // Puzzles whose hardest technique was each one
+    private final long[] hardestCounts = new long[TECHNIQUES.length];
+
+    public SudokuGradingStats() {}
+
+    // One try of a technique, which made a number of steps
+    public void addTry(SudokuTechnique technique, long stepCount,
+                       long nanos) {
+        this.tryCounts[technique.ordinal()]++;
+        this.stepCounts[technique.ordinal()] += stepCount;
+        this.nanos[technique.ordinal()] += nanos;
+    }
+
+    /* Count one graded puzzle, with the hardest technique it needed, or
+     * null if it needed none
+     */
+    public void countGrade(boolean solved, SudokuTechnique hardest) {
+
+        this.gradeCount++;
+
+        if (!solved) {
+            this.unsolvedCount++;
+        }
+        else if (hardest != null) {
+            this.hardestCounts[hardest.ordinal()]++;
+        }
+    }
+
+    public void addAll(SudokuGradingStats other) {
+
+        this.gradeCount += other.gradeCount;
+        this.unsolvedCount += other.unsolvedCount;
+
+        for (int i = 0; i < TECHNIQUES.length; i++) {
+            this.tryCounts[i] += other.tryCounts[i];
+            this.stepCounts[i] += other.stepCounts[i];
+            this.nanos[i] += other.nanos[i];
+            this.hardestCounts[i] += other.hardestCounts[i];
+        }
+    }
+
+    public long getGradeCount() {
+        return this.gradeCount;
+    }
+
+    // Puzzles found to have no solution
+    public long getUnsolvedCount() {
+        return this.unsolvedCount;
+    }
+
+    public long getTryCount(SudokuTechnique technique) {
+        return this.tryCounts[technique.ordinal()];
+    }
+
+    /* Values placed or sets of candidates removed by a technique, or
+     * values guessed by bifurcation
+     */
+    public long getStepCount(SudokuTechnique technique) {
+        return this.stepCounts[technique.ordinal()];
+    }
+
+    // Time spent trying a technique, whether or not it made a step
+    public long getNanos(SudokuTechnique technique) {
+        return this.nanos[technique.ordinal()];
+    }
+
+    public long getHardestCount(SudokuTechnique technique) {
+        return this.hardestCounts[technique.ordinal()];
+    }
+
+    public String toText() {
+
+        StringBuilder text = new StringBuilder();
+
+        text.append("Grading statistics:\n");
+        text.append("  Puzzles graded:     ").append(this.gradeCount)
+            .append('\n');
+        text.append("  With no solution:   ").append(this.unsolvedCount)
+            .append('\n');
+        text.append("  Technique           Hardest      Steps      Tries"
+                + "    Time (ms)\n");
+
+        for (SudokuTechnique technique : TECHNIQUES) {
+            int i = technique.ordinal();
+            text.append(String.format("  %-18s %8d %10d %10d %12.3f%n",
+                    technique.getDisplayName(), this.hardestCounts[i],
+                    this.stepCounts[i], this.tryCounts[i],
+                    this.nanos[i] / 1e6));
+        }
+
+        return text.toString();
+    }
+
+    public String toJson() {
+
+        StringBuilder json = new StringBuilder();
+
+        json.append("{\"grades\":").append(this.gradeCount)
+            .append(",\"unsolved\":").append(this.unsolvedCount)
+            .append(",\"techniques\":[");
+
+        for (SudokuTechnique technique : TECHNIQUES) {
+
+            int i = technique.ordinal();
+
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append("{\"technique\":\"").append(technique.getKey())
+                .append("\",\"hardest\":").append(this.hardestCounts[i])
+                .append(",\"steps\":").append(this.stepCounts[i])
+                .append(",\"tries\":").append(this.tryCounts[i])
+                .append(",\"nanos\":").append(this.nanos[i])
+                .append('}');
+        }
+
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,184 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuGrid.java
+ * Purpose:     A sudoku grid with boxes of n by n squares, n squared rows
+ *              and columns and values from 1 to n squared, stored as one
+ *              byte per square, row by row, with 0 for an empty square. The
+ *              usual 9x9 grid has n = 3. Copying a grid is a single array
+ *              copy, and a grid can be packed into longs for storing
+ *              solutions, 6 of them for a 9x9 grid.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuGrid {
+
+    // Cells of a 9x9 grid, which every solver except the general one uses
+    public static final int CELL_COUNT = 81;
+
+    // Longs needed to pack a 9x9 grid, at 16 cells of 4 bits per long
+    public static final int PACKED_LENGTH = 6;
+
+    // Box sizes supported, up to 25x25 grids whose values fit in 5 bits
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 5;
+
+    private final int boxSize;
+    private final int side;
+    private final byte[] cells;
+
+    // Bits per packed value, and values packed in each long
+    private final int packedBits;
+    private final int cellsPerLong;
+    private final int packedLength;
+
+    // A 9x9 grid
+    public SudokuGrid() {
+        this(3);
+    }
+
+    public SudokuGrid(int boxSize) {
+
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box size " + boxSize
+                    + " is not between " + MIN_BOX_SIZE + " and "
+                    + MAX_BOX_SIZE);
+        }
+
+        this.boxSize = boxSize;
+        this.side = boxSize * boxSize;
+        this.cells = new byte[this.side * this.side];
+        this.packedBits = this.side < 16 ? 4 : 5;
+        this.cellsPerLong = 64 / this.packedBits;
+        this.packedLength = packedLength(boxSize);
+    }
+
+    public SudokuGrid(SudokuGrid other) {
+        this(other.boxSize);
+        this.copyFrom(other);
+    }
+
+    // Index of a cell in a 9x9 grid
+    public static int cellIndex(int row, int col) {
+        return 9 * row + col;
+    }
+
+    public int getBoxSize() {
+        return this.boxSize;
+    }
+
+    // Rows, columns and values of the grid
+    public int getSide() {
+        return this.side;
+    }
+
+    public int getCellCount() {
+        return this.cells.length;
+    }
+
+    // Longs needed by pack()
+    public int getPackedLength() {
+        return this.packedLength;
+    }
+
+    // Longs needed to pack a grid with boxes of boxSize squares a side
+    public static int packedLength(int boxSize) {
+
+        int side = boxSize * boxSize;
+        int cellsPerLong = 64 / (side < 16 ? 4 : 5);
+
+        return (side * side + cellsPerLong - 1) / cellsPerLong;
+    }
+
+    public int get(int cell) {
+        return this.cells[cell];
+    }
+
+    public int get(int row, int col) {
+        return this.cells[this.side * row + col];
+    }
+
+    public void set(int cell, int val) {
+        this.cells[cell] = (byte) val;
+    }
+
+    public void set(int row, int col, int val) {
+        this.cells[this.side * row + col] = (byte) val;
+    }
+
+    // Copy a grid of the same size
+    public void copyFrom(SudokuGrid other) {
+        System.arraycopy(other.cells, 0, this.cells, 0, this.cells.length);
+    }
+
+    public SudokuGrid copy() {
+        return new SudokuGrid(this);
+    }
+
+    public void clear() {
+        for (int cell = 0; cell < this.cells.length; cell++) {
+            this.cells[cell] = 0;
+        }
+    }
+
+    public int getFilledCount() {
+
+        int count = 0;
+
+        for (byte val : this.cells) {
+            if (val != 0) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public boolean isFull() {
+        return this.getFilledCount() == this.cells.length;
+    }
+
+    // Append the 81 values of a 9x9 grid as digits, row by row
+    public void appendDigits(StringBuilder text) {
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            text.append((char) ('0' + this.cells[cell]));
+        }
+    }
+
+    // Pack into getPackedLength() longs of an array, starting at offset
+    public void pack(long[] packed, int offset) {
+
+        for (int i = 0; i < this.packedLength; i++) {
+
+            long word = 0;
+            int start = this.cellsPerLong * i;
+            int end = Math.min(start + this.cellsPerLong, this.cells.length);
+
+            for (int cell = start; cell < end; cell++) {
+                word |= (long) this.cells[cell]
+                        << (this.packedBits * (cell - start));
+            }
+
+            packed[offset + i] = word;
+        }
+    }
+
+    // Unpack a grid of the same size written by pack() at the same offset
+    public void unpack(long[] packed, int offset) {
+
+        long mask = (1L << this.packedBits) - 1;
+
+        for (int i = 0; i < this.packedLength; i++) {
+
+            long word = packed[offset + i];
+            int start = this.cellsPerLong * i;
+            int end = Math.min(start + this.cellsPerLong, this.cells.length);
+
+            for (int cell = start; cell < end; cell++) {
+                this.cells[cell] = (byte) (word & mask);
+                word >>>= this.packedBits;
+            }
+        }
+    }
+}
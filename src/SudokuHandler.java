@@ -1,14 +1,18 @@
 package sudoku;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Filename:    SudokuHandler.java
- * Purpose:     Find and print solutions to a given sudoku grid.
+ * Purpose:     Find and print solutions to a given sudoku grid of any
+ *              supported size.
  * 
  * @author      Andrew Blackwood
  * @version     1.0, 22/09/2016
@@ -16,63 +20,56 @@ import java.util.concurrent.TimeUnit;
 
 public class SudokuHandler {
     
-    private int[][] grid;
-    private int[][] initialGrid;
-    private ArrayList<int[][]> gridList;
-    private boolean[][] initialClue = new boolean[9][9];
-    private ArrayList<int[][]> solutions = new ArrayList<>();
+    private SudokuGrid grid;
+    private SudokuGrid initialGrid;
+    private SudokuSolveOptions options;
+    private boolean[] initialClue;
+    private SudokuSolutionBuffer results;
+    private SudokuSolverStats stats;
     
-    public SudokuHandler(int[][] grid) {
+    // Grade of the puzzle if it was graded instead of solved
+    private SudokuGrade grade;
+    
+    // Messages go to standard error when solutions are for another program
+    private PrintStream messages = System.out;
+    
+    public SudokuHandler(SudokuGrid grid) {
         
         this.grid = grid;
         
-        if (this.grid.length != 9) {
+        if (this.grid == null) {
             ErrorHandler error = new ErrorHandler();
-            error.printAndExit("Unexpected Error: Parsed sudoku grid passed to"
-                    + " SudokuHandler is not the correct size", true, -1);
-        }
-        
-        for (int[] col : this.grid) {
-            if (col.length != 9) {
-                ErrorHandler error = new ErrorHandler();
-                error.printAndExit("Unexpected Error: Parsed sudoku grid passed"
-                    + " to SudokuHandler is not the correct size", true, -1);
-            }
-        }
-    }
-    
-    public int[][] cloneIntGrid(int[][] original) {
-        
-        int[][] clone = new int[original.length][original.length];
-        
-        for (int i = 0; i < original.length; i++) {
-            clone[i] = Arrays.copyOf(original[i], original[i].length);
+            error.printAndExit("Unexpected Error: No parsed sudoku grid passed"
+                    + " to SudokuHandler", true, -1);
         }
         
-        return clone;
+        this.initialClue = new boolean[this.grid.getCellCount()];
     }
     
     private boolean acceptClue(int row, int col, int val) {
         
+        int side = this.grid.getSide();
+        int boxSize = this.grid.getBoxSize();
+        
         // Check row and column
-        for (int i = 0; i < 9; i++ ) {
-            if (this.grid[row][i] == val && i != col) {
+        for (int i = 0; i < side; i++ ) {
+            if (this.grid.get(row, i) == val && i != col) {
                 return false;
             }
-            if (this.grid[i][col] == val && i != row) {
+            if (this.grid.get(i, col) == val && i != row) {
                 return false;
             }
         }
         
         // Check box
-        int boxStartRow = 3 * (row / 3);
-        int boxStartCol = 3 * (col / 3);
+        int boxStartRow = boxSize * (row / boxSize);
+        int boxStartCol = boxSize * (col / boxSize);
         
-        for (int i = boxStartRow; i < boxStartRow + 3; i++) {
-            for (int j = boxStartCol; j < boxStartCol + 3; j++) {
-		if (this.grid[i][j] == val && i!= row && i!= col) {
+        for (int i = boxStartRow; i < boxStartRow + boxSize; i++) {
+            for (int j = boxStartCol; j < boxStartCol + boxSize; j++) {
+                if (this.grid.get(i, j) == val && (i != row || j != col)) {
                     return false;
-		}
+                }
             }
         }
         
@@ -82,13 +79,14 @@ public class SudokuHandler {
     private void logAndValidateInitialClues() {   
         
         int clueCount = 0;
+        int side = this.initialGrid.getSide();
         
-        for (int r = 0; r < this.initialGrid.length; r++) {
-            for (int c = 0; c < this.initialGrid.length; c++) {
-                if (this.initialGrid[r][c] != 0) {
-                    this.initialClue[r][c] = true;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (this.initialGrid.get(r, c) != 0) {
+                    this.initialClue[side * r + c] = true;
                     clueCount++;
-                    if (!this.acceptClue(r, c, this.initialGrid[r][c])) {
+                    if (!this.acceptClue(r, c, this.initialGrid.get(r, c))) {
                         ErrorHandler error = new ErrorHandler();
                         error.printAndExit("Error: Values in the initial"
                                 + " grid are not valid.", true, 1);
@@ -97,8 +95,9 @@ public class SudokuHandler {
             }
         }  
         
-        // Exit if there are not more than 16 clues given in initial grid
-        if (clueCount < 17) {
+        // Exit if there are not more than 16 clues given in a 9x9 grid, the
+        // fewest any 9x9 puzzle with one solution has
+        if (side == 9 && clueCount < 17) {
             ErrorHandler error = new ErrorHandler();
             error.printAndExit("Error: Need minimum of 17 clues in the initial"
                     + " sudoku grid in order for this program to be able to"
@@ -106,325 +105,410 @@ public class SudokuHandler {
         }
     }
     
-    public boolean[][] cloneBooleanGrid(boolean[][] original) {
-        
-        boolean[][] clone = new boolean[original.length][original.length];
-        
-        for (int i = 0; i < original.length; i++) {
-            clone[i] = Arrays.copyOf(original[i], original[i].length);
-        }
-        
-        return clone;
-    }
-    
-    public boolean isSolved(int[][] testGrid) {
-        
-        int count = 0;
-        
-        for (int[] col : testGrid) {
-            for (int c = 0; c < testGrid.length; c++) {
-                if (col[c] != 0) {
-                    count++;
-                }
-            }       
-        }
-            
-        return count == 81;
-    }
-    
     // Actions before attempting to solve sudoku
     private void preSolve() {
         
         // Save initial grid
-        this.initialGrid = this.cloneIntGrid(this.grid);
+        this.initialGrid = this.grid.copy();
         
         // Log locations of initial clues and check validity
         this.logAndValidateInitialClues();
         
         // Check not already a full solution
-        if (isSolved(this.initialGrid)) {
+        if (this.initialGrid.isFull()) {
             ErrorHandler error = new ErrorHandler();
             error.printAndExit("Source file sudoku grid is already solved.",
                                true, 1);
         }  
     }
     
-    private int[] getFirstEmptyCell() {
+    /* Wait for the solver threads to finish. They stop by themselves at
+     * the time limit, and if this thread is interrupted they are asked to
+     * stop early, so whatever they found is always kept.
+     */
+    public void waitForAllSolverThreads(ExecutorService executor) {
         
-        int[] emptyCell = new int[2];
+        boolean interrupted = false;
         
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                if (!this.initialClue[r][c]) {
-                    emptyCell[0] = r;
-                    emptyCell[1] = c;
-                    return emptyCell;
+        while (true) {
+            try {
+                if (executor.awaitTermination(Long.MAX_VALUE, 
+                                              TimeUnit.NANOSECONDS)) {
+                    break;
                 }
+            } 
+            catch (InterruptedException ie) {
+                interrupted = true;
+                this.results.cancel();
             }
         }
         
-        return emptyCell;   
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
+    
+    private void solveUsingMultithreading() {
+        
+        // Set up a work-stealing pool the same size as the processor count
+        ForkJoinPool pool = new ForkJoinPool();
+        
+        // Give each worker thread a solver of its own
+        ThreadLocal<SudokuBacktrackingSolver> workerSolvers 
+                = ThreadLocal.withInitial(() -> new SudokuBacktrackingSolver(
+                        this.options.isUsingMinimumRemainingValues(), 
+                        this.options.isUsingConstraintPropagation()));
+        
+        SudokuSolverTask rootTask = new SudokuSolverTask(this.grid, 
+                workerSolvers, this.options.getSplitDepth(), this.results);
+        pool.execute(rootTask);
 
-    private boolean acceptMT(int row, int col, int val, int threadValue) {
+        pool.shutdown();
+        this.waitForAllSolverThreads(pool);
         
-        int[][] thisGrid = this.gridList.get(threadValue-1);
-                
-        // Check row and column
-        for (int i = 0; i < 9; i++ ) {
-            if (thisGrid[row][i] == val || thisGrid[i][col] == val) {
-                return false;
-            }
+        // Joining makes every task's solutions visible to this thread
+        rootTask.join();
+        rootTask.collectStats(this.stats);
+    }
+    
+    // Share the search between worker processes started for it
+    private void solveUsingWorkerProcesses() {
+        
+        SudokuShardCoordinator coordinator = new SudokuShardCoordinator(
+                this.grid, this.options, this.results, this.stats);
+        
+        try {
+            coordinator.run();
+        }
+        catch (IOException e) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: Could not search using worker"
+                    + " processes (" + e.getMessage() + ")", true, 1);
         }
         
-        // Check box
-        int boxStartRow = 3 * (row / 3);
-        int boxStartCol = 3 * (col / 3);
+        this.messages.println("Searched " + coordinator.getShardCount()
+                + " shards on " + coordinator.getConnectedCount() 
+                + " worker processes.\n");
         
-        for (int i = boxStartRow; i < boxStartRow + 3; i++) {
-            for (int j = boxStartCol; j < boxStartCol + 3; j++) {
-		if (thisGrid[i][j] == val) {
-                    return false;
-		}
+        if (coordinator.getReassignedCount() > 0) {
+            this.messages.println("Handed " 
+                    + coordinator.getReassignedCount() + " shards to another"
+                    + " worker after the one searching them stopped.\n");
+        }
+    }
+    
+    /* Search in parts, on one thread or many, saving the progress made to
+     * the checkpoint file now and then and when stopped early.
+     */
+    private void solveWithCheckpoints() {
+        
+        String path = this.options.getCheckpointPath();
+        SudokuCheckpointedSearch search = new SudokuCheckpointedSearch(
+                this.grid, this.options, this.results, this.stats);
+        
+        try {
+            if (this.options.isResuming()) {
+                search.resume();
+                this.messages.println("Resuming from " + path + " with "
+                        + this.results.getCount() + " solutions found"
+                        + " before.\n");
             }
+            search.run();
+        }
+        catch (IOException e) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: Could not use checkpoint file " + path
+                    + " (" + e.getMessage() + ")", true, 1);
         }
         
-        return true;
+        if (search.isSaved()) {
+            this.messages.println("Progress saved to " + path + ". Run the"
+                    + " same command with --resume added to carry on.\n");
+        }
     }
     
-    private int[][] makeNewSolution(int[][] grid) {
+    public void solve(boolean useMultithreading) {
         
-        int[][] solution = new int[9][9];
+        SudokuSolveOptions solveOptions = new SudokuSolveOptions();
+        solveOptions.setUseMultithreading(useMultithreading);
         
-        for (int i = 0; i < grid.length; i++) {
-            solution[i] = Arrays.copyOf(grid[i], grid[i].length);
+        this.solve(solveOptions);
+    }
+    
+    public void solve(SudokuSolveOptions options) {
+                
+        this.options = options;
+        this.results = new SudokuSolutionBuffer(!options.isCountOnly(), 
+                options.getMaxSolutions(), options.getTimeLimitMillis(),
+                this.grid.getBoxSize());
+        this.stats = new SudokuSolverStats();
+        
+        if (options.getOutputFormat() != SudokuOutputFormat.PRETTY) {
+            this.messages = System.err;
         }
         
-        return solution;
+        preSolve();
+        
+        this.messages.println("Solving...\n");
+        
+        try {
+            this.runSolver();
+            this.stats.countSolve();
+        }
+        catch (UncheckedIOException e) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: " + e.getMessage() + " ("
+                    + e.getCause().getMessage() + ")", true, 1);
+        }
+        catch (OutOfMemoryError e) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: Not enough memory to solve the sudoku."
+                    + " Give Java more with -Xmx, or use --count-only.",
+                    true, 1);
+        }
     }
     
-    public void solveFromCellMT(int row, int col, int threadValue, 
-                                                     boolean threadCall) {
-                        
-        if (row == 9) {          
-            
-            int[][] newSolution = makeNewSolution(
-                    this.gridList.get(threadValue-1));
-            this.solutions.add(newSolution);
-            
-            return;
+    private void runSolver() {
+        
+        // Saved progress and shards are only understood by the
+        // backtracking solver
+        if ((this.options.getCheckpointPath() != null 
+                || this.options.getWorkerCount() > 0)
+                && (this.grid.getBoxSize() != 3 
+                    || this.options.isUsingDancingLinks())) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: --checkpoint and --workers work on 9x9"
+                    + " grids only, and cannot be used with -x.", true, 1);
         }
-                               
-        if (this.initialClue[row][col]) {
-           if (col == 8) {
-              solveFromCellMT(row + 1, 0, threadValue, false);
-              return;
-           }     
-           solveFromCellMT(row, col + 1, threadValue, false);
-           return;
+        
+        if (this.options.getCheckpointPath() != null 
+                && this.options.getWorkerCount() > 0) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: --checkpoint cannot be used with"
+                    + " --workers.", true, 1);
         }
         
-        int startValue;
-        int endValue;
+        // Grids other than 9x9 always use the general solver on a single
+        // thread, with propagation and the fewest candidates first
+        if (this.grid.getBoxSize() != 3) {
+            SudokuSolver solver 
+                    = new SudokuGeneralSolver(this.grid.getBoxSize());
+            long startTime = System.nanoTime();
+            solver.solveAll(this.grid, this.results);
+            this.addSingleThreadStats(solver, startTime);
+            return;
+        }
         
-        if (threadCall) {
-            startValue = threadValue;
-            endValue = threadValue;
+        // The exact cover engine always runs on a single thread
+        if (this.options.isUsingDancingLinks()) {
+            SudokuSolver solver = new SudokuDancingLinksSolver();
+            long startTime = System.nanoTime();
+            solver.solveAll(this.grid, this.results);
+            this.addSingleThreadStats(solver, startTime);
+            return;
         }
-        else {
-            startValue = 1;
-            endValue = 9;
+        
+        SudokuBacktrackingSolver solver = new SudokuBacktrackingSolver(
+                this.options.isUsingMinimumRemainingValues(), 
+                this.options.isUsingConstraintPropagation());
+        long startTime = System.nanoTime();
+        
+        // Fill in what can be deduced before any searching
+        if (!solver.load(this.grid)) {
+            this.addSingleThreadStats(solver, startTime);
+            return;
         }
-            
-        for (int val = startValue; val <= endValue; val++) {        
-            
-            if (this.acceptMT(row, col, val, threadValue)) {
-
-                this.gridList.get(threadValue-1)[row][col] = val;
-                
-                if (col == 8) {
-                    solveFromCellMT(row + 1, 0, threadValue, false);
-                }
-                else {
-                    solveFromCellMT(row, col + 1, threadValue, false);
-                }  
-            }
+        
+        if (this.options.isUsingConstraintPropagation()) {
+            this.messages.println("Filled " + solver.getDeducedCount()
+                    + " cells by deduction before searching.\n");
         }
         
-        this.gridList.get(threadValue-1)[row][col] = 0;
+        // The tasks load the grid again, so they count the deductions
+        if (this.options.getWorkerCount() > 0) {
+            this.solveUsingWorkerProcesses();
+        }
+        else if (this.options.getCheckpointPath() != null) {
+            this.solveWithCheckpoints();
+        }
+        else if (this.options.isUsingMultithreading()) {
+            solveUsingMultithreading(); 
+        }
+        else {
+            solver.solve(this.results);
+            this.addSingleThreadStats(solver, startTime);
+        }    
     }
     
-    public void waitForAllSolverThreads(ExecutorService executor) {
-        try {
-            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-                ErrorHandler error = new ErrorHandler();
-                error.printAndExit("Error: Sudoku solver did not"
-                        + " finish finding all solutions.", true, 1);
-            }
-        } 
-        catch (InterruptedException ie) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
-            ErrorHandler error = new ErrorHandler();
-            error.printAndExit("Error: Sudoku solver did not"
-                        + " finish finding all solutions.", true, 1);
-        }  
+    private void addSingleThreadStats(SudokuSolver solver, long startTime) {
+        
+        long elapsedTime = System.nanoTime() - startTime;
+        
+        solver.addStatsTo(this.stats);
+        this.stats.addWorkerTime(Thread.currentThread().getName(), 
+                                 elapsedTime, this.stats.getNodeCount());
     }
     
-    private void solveUsingMultithreading() {
+    private SudokuSolutionWriter newStandardOutputWriter(
+            SudokuOutputFormat format) {
         
-        // Set up a thread pool the same size as the processor count
-        int processorCount = Runtime.getRuntime().availableProcessors();
-        ExecutorService executor = Executors.newFixedThreadPool(processorCount);
-
-        // Get the first empty cell
-        int[] emptyCell = this.getFirstEmptyCell();
-        int row = emptyCell[0];
-        int col = emptyCell[1];
-
-        // Set up a list to store grids for different solver threads
-        this.gridList = new ArrayList<>();
-
-        // Try solving for each value from the first empty cell
-        for (int i = 1; i <= 9; i++) {
-
-            int[][] newGrid = this.cloneIntGrid(this.grid);
-            this.gridList.add(newGrid);
-
-            SudokuSolverRunnable solverThread 
-                    = new SudokuSolverRunnable(this, row, col, i);
-            executor.execute(solverThread);
-        }
-
-        executor.shutdown();
-        this.waitForAllSolverThreads(executor);
+        // Bypass System.out, which locks and may flush on every call
+        return new SudokuSolutionWriter(
+                new FileOutputStream(FileDescriptor.out), format);
     }
     
-    private boolean accept(int row, int col, int val) {
+    public void printSolution(SudokuGrid grid) {
         
-        // Check row and column
-        for (int i = 0; i < 9; i++ ) {
-            if (this.grid[row][i] == val || this.grid[i][col] == val) {
-                return false;
-            }
-        }
+        SudokuSolutionWriter writer 
+                = this.newStandardOutputWriter(SudokuOutputFormat.PRETTY);
         
-        // Check box
-        int boxStartRow = 3 * (row / 3);
-        int boxStartCol = 3 * (col / 3);
+        System.out.flush();
+        writer.writeGrid(grid);
+        writer.flush();
+    }
+       
+    public void printSolutions() {
         
-        for (int i = boxStartRow; i < boxStartRow + 3; i++) {
-            for (int j = boxStartCol; j < boxStartCol + 3; j++) {
-		if (this.grid[i][j] == val) {
-                    return false;
-		}
-            }
+        SudokuOutputFormat format = SudokuOutputFormat.PRETTY;
+        
+        if (this.options != null) {
+            format = this.options.getOutputFormat();
         }
         
-        return true;
-    }
-
-    private void solveFromCell(int row, int col) {
-                
-        if (row == 9) {
-                        
-            int[][] newSolution = makeNewSolution(this.grid);
-            this.solutions.add(newSolution);
-            
+        if (this.results.getCount() == 0) {
+            if (this.results.isCancelled()) {
+                this.printStoppedEarly();
+            }
+            else {
+                this.messages.println("No Solutions");
+            }
             return;
         }
-                               
-        if (this.initialClue[row][col]) {
-           if (col == 8) {
-              solveFromCell(row + 1, 0);
-              return;
-           }   
-           solveFromCell(row, col + 1);
-           return;
+        
+        if (!this.results.isStoringSolutions()) {
+            this.messages.println("Number of solutions: " 
+                    + this.results.getCount());
         }
-    
-        for (int val = 1; val <= 9; val++) {  
+        else {
+            SudokuSolutionWriter writer = this.newStandardOutputWriter(format);
+            SudokuGrid solution = new SudokuGrid(this.grid.getBoxSize());
             
-            if (this.accept(row, col, val)) {
-
-                this.grid[row][col] = val;
-                
-                if (col == 8) {
-                    solveFromCell(row + 1, 0);
+            System.out.flush();
+            
+            if (format == SudokuOutputFormat.PRETTY) {
+                if (this.results.reachedMaxSolutions()
+                        || this.results.isCancelled()) {
+                    writer.writeText("\nSolutions found:\n");
                 }
                 else {
-                    solveFromCell(row, col + 1);
-                }  
+                    writer.writeText("\nAll possible solutions:\n");
+                }
+            }
+
+            for (long i = 0; i < this.results.getStoredCount(); i++) {
+                this.results.copySolution(i, solution);
+                writer.writeSolution(solution, i + 1);
             }
+            
+            writer.flush();
+            this.results.clearSolutions();
         }
         
-        this.grid[row][col] = 0;                                
-    }    
+        if (this.results.reachedMaxSolutions()) {
+            this.messages.println("Stopped after finding the maximum of "
+                    + this.results.getMaxSolutions() + " solutions.\n");
+        }
+        else if (this.results.isCancelled()) {
+            this.printStoppedEarly();
+        }
+        else {
+            this.messages.println("Successfully found all possible"
+                    + " solutions.\n");
+        }
+    }
     
-    public void solve(boolean useMultithreading) {
-                
-        preSolve();
-        
-        System.out.println("Solving...\n");
+    private void printStoppedEarly() {
         
-        if (useMultithreading) {
-            solveUsingMultithreading(); 
+        if (this.results.isTimedOut()) {
+            this.messages.println("Stopped at the time limit of "
+                    + this.options.getTimeLimitMillis() + " ms, so there"
+                    + " may be more solutions.\n");
         }
         else {
-            solveFromCell(0, 0);
-        }    
+            this.messages.println("Stopped before finding all possible"
+                    + " solutions.\n");
+        }
     }
     
-    public void printSolution(int[][] grid) {
+    /* Grade the puzzle with SudokuGrader instead of solving it, printing
+     * each step taken and then the rating
+     */
+    public void grade(SudokuSolveOptions options) {
         
-        int gridSize = grid.length;
+        this.options = options;
         
-        for (int i = 0; i < gridSize; i++) {
-            
-            System.out.println();
-            
-            if (i == 3 || i == 6) {
-                System.out.println("----------------------------");
-            }
-
-            for (int j = 0; j < gridSize; j++) {
-                
-                System.out.print(grid[i][j]);
-                
-                if (j == 2 || j == 5) {
-                    System.out.print(" | ");
-                }
-                else {
-                    System.out.print("  ");
-                }
-            }
-            
-            if (i != 2 && i != 5 && i != 8) {
-                System.out.print("\n        |         |");
-            }
+        if (this.grid.getSide() != 9) {
+            ErrorHandler error = new ErrorHandler();
+            error.printAndExit("Error: --grade works on 9x9 grids only.",
+                               true, 1);
         }
         
-        System.out.println();
+        preSolve();
         
-    }
-       
-    public void printSolutions() {
+        this.grade = new SudokuGrader(true).grade(this.grid);
         
-        if (solutions.isEmpty()) {
-            System.out.println("No Solutions");
+        if (!this.grade.isSolved()) {
+            System.out.println("The sudoku has no solution.");
             return;
         }
         
-        System.out.println("\nAll possible solutions:");
+        int stepNumber = 0;
+        
+        for (String step : this.grade.getSteps()) {
+            System.out.printf("%4d. %s%n", ++stepNumber, step);
+        }
+        
+        SudokuTechnique hardest = this.grade.getHardestTechnique();
+        
+        System.out.printf("%nRating: %.1f (hardest technique: %s)%n",
+                this.grade.getRating(), hardest.getDisplayName());
         
-        for (int i = 1; i <= solutions.size(); i++) {
-            System.out.println("\nSolution " + i + ":");
-            System.out.println("-----------");
-            printSolution(solutions.get(i - 1));
-            System.out.println();
+        if (this.grade.getGuessDepth() > 1) {
+            System.out.println("Guesses went " + this.grade.getGuessDepth()
+                    + " levels deep.");
         }
         
-        System.out.println("Successfully found all possible solutions.\n");
+        System.out.flush();
+    }
+    
+    // Search statistics of the last solve
+    public SudokuSolverStats getStats() {
+        return this.stats;
+    }
+    
+    public void printStats(SudokuStatsFormat format) {
+        
+        // Grading counts its own work instead of a search's
+        if (this.grade != null) {
+            if (format == SudokuStatsFormat.JSON) {
+                this.messages.println(this.grade.getStats().toJson());
+            }
+            else {
+                this.messages.print(this.grade.getStats().toText());
+            }
+        }
+        else if (format == SudokuStatsFormat.JSON) {
+            this.messages.println(this.stats.toJson());
+        }
+        else {
+            this.messages.print(this.stats.toText());
+        }
+        
+        this.messages.flush();
+    }
+    
+    // Whether the last solve stopped at the time limit
+    public boolean isTimedOut() {
+        return this.results.isTimedOut();
     }  
-}
+}
\ No newline at end of file
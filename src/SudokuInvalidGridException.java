@@ -0,0 +1,18 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuInvalidGridException.java
+ * Purpose:     Thrown when a grid holds a value outside 0 to 9, or two of
+ *              its clues clash in a row, column or box.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuInvalidGridException extends SudokuException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SudokuInvalidGridException(String message) {
+        super(message);
+    }
+}
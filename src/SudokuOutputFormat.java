@@ -0,0 +1,37 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuOutputFormat.java
+ * Purpose:     The formats in which solutions can be written.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public enum SudokuOutputFormat {
+
+    // Numbered grids with box borders, for reading on screen
+    PRETTY,
+
+    // One line of 81 digits per solution
+    LINE,
+
+    // One line of 81 comma-separated digits per solution
+    CSV,
+
+    /* 41 bytes per solution with one cell in each 4 bits, row by row,
+     * the first cell of each pair in the high bits
+     */
+    BINARY;
+
+    // Look up a format by its name in any case, or return null
+    public static SudokuOutputFormat fromName(String name) {
+
+        for (SudokuOutputFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuParseException.java
+ * Purpose:     Thrown when the text given for a puzzle is not in either of
+ *              the accepted formats.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuParseException extends SudokuException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SudokuParseException(String message) {
+        super(message);
+    }
+}
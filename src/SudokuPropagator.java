@@ -0,0 +1,291 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuPropagator.java
+ * Purpose:     Hold the remaining candidates for every cell of a sudoku grid
+ *              and fill in cells by logical deduction (naked singles, hidden
+ *              singles and locked candidates) before any guessing is done.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuPropagator {
+
+    /* ---------------------
+       -- Cell index maps --
+       ---------------------*/
+
+    // Cells of the 27 units: rows 0-8, columns 9-17 and boxes 18-26
+    static final int[][] UNITS = new int[27][9];
+
+    // The 20 other cells sharing a row, column or box with each cell
+    static final int[][] PEERS = new int[81][20];
+
+    static {
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                UNITS[i][j] = 9 * i + j;
+                UNITS[9 + i][j] = 9 * j + i;
+                UNITS[18 + i][j] = 9 * (3 * (i / 3) + j / 3)
+                        + 3 * (i % 3) + j % 3;
+            }
+        }
+
+        for (int cell = 0; cell < 81; cell++) {
+            int row = cell / 9;
+            int col = cell % 9;
+            int count = 0;
+            for (int other = 0; other < 81; other++) {
+                int otherRow = other / 9;
+                int otherCol = other % 9;
+                if (other != cell && (otherRow == row || otherCol == col
+                        || SudokuCandidateMasks.boxIndex(row, col)
+                        == SudokuCandidateMasks.boxIndex(otherRow,
+                                                         otherCol))) {
+                    PEERS[cell][count++] = other;
+                }
+            }
+        }
+    }
+
+    private final int[] values = new int[81];
+    private final int[] candidates = new int[81];
+    private int emptyCount;
+    private int deducedCount;
+
+    public SudokuPropagator() {}
+
+    // Set up candidates from a grid, returning false if the clues clash
+    public boolean load(SudokuGrid grid) {
+
+        for (int cell = 0; cell < 81; cell++) {
+            this.values[cell] = 0;
+            this.candidates[cell] = SudokuCandidateMasks.ALL_VALUES;
+        }
+        this.emptyCount = 81;
+        this.deducedCount = 0;
+
+        for (int cell = 0; cell < 81; cell++) {
+            if (grid.get(cell) != 0 && !this.assign(cell, grid.get(cell))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void copyFrom(SudokuPropagator other) {
+        System.arraycopy(other.values, 0, this.values, 0, 81);
+        System.arraycopy(other.candidates, 0, this.candidates, 0, 81);
+        this.emptyCount = other.emptyCount;
+        this.deducedCount = other.deducedCount;
+    }
+
+    public int getCandidates(int cell) {
+        return this.candidates[cell];
+    }
+
+    public int getEmptyCount() {
+        return this.emptyCount;
+    }
+
+    // Number of cells filled by propagate() since the grid was loaded
+    public int getDeducedCount() {
+        return this.deducedCount;
+    }
+
+    public int getFirstEmptyCell() {
+        return SudokuCandidateMasks.getFirstEmptyCell(this.values);
+    }
+
+    // Empty cell with fewest candidates, first in row order on a tie
+    public int getBestEmptyCell() {
+        return SudokuCandidateMasks.getBestEmptyCell(this.values,
+                                                     this.candidates);
+    }
+
+    public void copyToGrid(SudokuGrid grid) {
+        for (int cell = 0; cell < 81; cell++) {
+            grid.set(cell, this.values[cell]);
+        }
+    }
+
+    // Place a value and remove it from the candidates of every peer
+    public boolean assign(int cell, int val) {
+
+        int bit = SudokuCandidateMasks.valueBit(val);
+
+        if ((this.candidates[cell] & bit) == 0) {
+            return false;
+        }
+
+        this.values[cell] = val;
+        this.candidates[cell] = bit;
+        this.emptyCount--;
+
+        for (int peer : PEERS[cell]) {
+            if ((this.candidates[peer] & bit) != 0) {
+                if (this.values[peer] != 0) {
+                    return false;
+                }
+                this.candidates[peer] &= ~bit;
+                if (this.candidates[peer] == 0) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean assignDeduced(int cell, int val) {
+        this.deducedCount++;
+        return this.assign(cell, val);
+    }
+
+    /* Repeat the deduction rules until none of them makes progress.
+     * Returns false if the grid is found to have no solution.
+     */
+    public boolean propagate() {
+
+        boolean changed = true;
+
+        while (changed && this.emptyCount > 0) {
+
+            changed = false;
+
+            // Naked singles: an empty cell with only one candidate left
+            for (int cell = 0; cell < 81; cell++) {
+                if (this.values[cell] != 0) {
+                    continue;
+                }
+                if (this.candidates[cell] == 0) {
+                    return false;
+                }
+                if (Integer.bitCount(this.candidates[cell]) == 1) {
+                    if (!this.assignDeduced(cell,
+                            SudokuCandidateMasks.bitValue(
+                                    this.candidates[cell]))) {
+                        return false;
+                    }
+                    changed = true;
+                }
+            }
+
+            // Hidden singles: a value with only one place left in a unit
+            for (int[] unit : UNITS) {
+
+                int seenOnce = 0;
+                int seenTwice = 0;
+
+                for (int cell : unit) {
+                    seenTwice |= seenOnce & this.candidates[cell];
+                    seenOnce |= this.candidates[cell];
+                }
+
+                if (seenOnce != SudokuCandidateMasks.ALL_VALUES) {
+                    return false;
+                }
+
+                int singles = seenOnce & ~seenTwice;
+
+                while (singles != 0) {
+                    int bit = singles & -singles;
+                    singles ^= bit;
+                    for (int cell : unit) {
+                        if ((this.candidates[cell] & bit) != 0) {
+                            if (this.values[cell] == 0) {
+                                if (!this.assignDeduced(cell,
+                                        SudokuCandidateMasks.bitValue(bit))) {
+                                    return false;
+                                }
+                                changed = true;
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if (!changed) {
+                changed = this.eliminateLockedCandidates();
+            }
+        }
+
+        return true;
+    }
+
+    /* Pointing: if a value's places in a box all lie on one row or column,
+     * remove it from the rest of that row or column.
+     * Claiming: if a value's places in a row or column all lie in one box,
+     * remove it from the rest of that box.
+     */
+    private boolean eliminateLockedCandidates() {
+
+        boolean changed = false;
+
+        for (int box = 18; box < 27; box++) {
+            for (int line = 0; line < 18; line++) {
+                changed |= this.eliminateIntersection(box, line);
+                changed |= this.eliminateIntersection(line, box);
+            }
+        }
+
+        return changed;
+    }
+
+    /* Remove from the cells of unit 'other' outside unit 'base' any value
+     * whose places in 'base' all lie inside 'other'.
+     */
+    private boolean eliminateIntersection(int base, int other) {
+
+        int inside = 0;
+        int outside = 0;
+        boolean overlaps = false;
+
+        for (int cell : UNITS[base]) {
+            if (this.values[cell] != 0) {
+                continue;
+            }
+            if (this.contains(other, cell)) {
+                inside |= this.candidates[cell];
+                overlaps = true;
+            }
+            else {
+                outside |= this.candidates[cell];
+            }
+        }
+
+        int locked = inside & ~outside;
+
+        if (!overlaps || locked == 0) {
+            return false;
+        }
+
+        boolean changed = false;
+
+        for (int cell : UNITS[other]) {
+            if (this.values[cell] == 0 && !this.contains(base, cell)
+                    && (this.candidates[cell] & locked) != 0) {
+                this.candidates[cell] &= ~locked;
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    private boolean contains(int unit, int cell) {
+
+        int row = cell / 9;
+        int col = cell % 9;
+
+        if (unit < 9) {
+            return row == unit;
+        }
+        if (unit < 18) {
+            return col == unit - 9;
+        }
+        return SudokuCandidateMasks.boxIndex(row, col) == unit - 18;
+    }
+}
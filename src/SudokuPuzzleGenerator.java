@@ -0,0 +1,367 @@
+package sudoku;
+
+import java.util.SplittableRandom;
+
+/**
+ * Filename:    SudokuPuzzleGenerator.java
+ * Purpose:     Make new 9x9 puzzles with one solution each. A random full
+ *              grid is filled in, then its clues are taken away one at a
+ *              time in random order, putting each back if the puzzle would
+ *              lose its single solution, until the target number of clues
+ *              is reached or no more can go. Puzzle n made from a given
+ *              seed is always the same, whatever thread makes it. Not safe
+ *              to share between threads.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuPuzzleGenerator {
+
+    // Fewest clues any 9x9 puzzle with one solution has
+    public static final int MIN_CLUES = 17;
+
+    // Target meaning every clue that can go is taken away
+    public static final int NO_TARGET = 0;
+
+    // Marks a filled cell in the candidates kept by the search
+    private static final int FILLED = 1 << 9;
+
+    // Spreads out the seeds of consecutive puzzles; any odd number would do
+    private static final long SEED_STEP = 0xBF58476D1CE4E5B9L;
+
+    private final long seed;
+    private final int targetClues;
+    private final SudokuDifficulty difficulty;
+
+    private final SudokuPropagator propagator = new SudokuPropagator();
+
+    // Candidates left by the values in the solution grid while it is
+    // filled, then by the puzzle's clues while they are taken away
+    private final SudokuCandidateMasks masks = new SudokuCandidateMasks();
+    private final SudokuGrid solution = new SudokuGrid();
+    private final int[] cellOrder = new int[SudokuGrid.CELL_COUNT];
+
+    // Candidates of each cell at each level of the search for a solution
+    private final int[][] searchCandidates
+            = new int[SudokuGrid.CELL_COUNT + 1][SudokuGrid.CELL_COUNT];
+
+    // Full grids filled in so far, including ones that were not used
+    private long gridCount = 0;
+
+    /* Puzzles stop losing clues at targetClues, and full grids are tried
+     * until one gives a puzzle with no more clues than that. If difficulty
+     * is not null, only puzzles of that difficulty are made.
+     */
+    public SudokuPuzzleGenerator(long seed, int targetClues,
+                                 SudokuDifficulty difficulty) {
+        this.seed = seed;
+        this.targetClues = targetClues;
+        this.difficulty = difficulty;
+    }
+
+    public long getGridCount() {
+        return this.gridCount;
+    }
+
+    // Make puzzle number index of this generator's seed
+    public SudokuGrid generate(long index) {
+
+        SplittableRandom random
+                = new SplittableRandom(this.seed + SEED_STEP * index);
+        SudokuGrid puzzle = new SudokuGrid();
+
+        while (true) {
+
+            this.fillGrid(random);
+            this.gridCount++;
+
+            puzzle.copyFrom(this.solution);
+            int clueCount = this.removeClues(puzzle, random);
+
+            if ((this.targetClues == NO_TARGET
+                        || clueCount <= this.targetClues)
+                    && (this.difficulty != SudokuDifficulty.HARD
+                        || !this.isSolvedByDeduction(puzzle))) {
+                return puzzle;
+            }
+        }
+    }
+
+    // Fill the solution grid with a random full grid
+    private void fillGrid(SplittableRandom random) {
+        this.masks.clear();
+        this.solution.clear();
+        this.fill(random);
+    }
+
+    /* Fill the empty cell with the fewest candidates with each of them in
+     * random order until the rest of the grid can be filled too. Returns
+     * false if no value leads to a full grid.
+     */
+    private boolean fill(SplittableRandom random) {
+
+        int cell = this.masks.getBestEmptyCell(this.solution);
+
+        if (cell == -1) {
+            return true;
+        }
+
+        int candidates = this.masks.getCandidates(cell);
+
+        while (candidates != 0) {
+
+            int bit = randomBit(candidates, random);
+            int val = SudokuCandidateMasks.bitValue(bit);
+            candidates ^= bit;
+
+            this.solution.set(cell, val);
+            this.masks.place(cell, val);
+
+            if (this.fill(random)) {
+                return true;
+            }
+
+            this.masks.remove(cell, val);
+        }
+
+        this.solution.set(cell, 0);
+
+        return false;
+    }
+
+    private static int randomBit(int mask, SplittableRandom random) {
+
+        for (int skip = random.nextInt(Integer.bitCount(mask)); skip > 0;
+                skip--) {
+            mask &= mask - 1;
+        }
+
+        return mask & -mask;
+    }
+
+    /* Take clues away in random order while the puzzle stays as it should
+     * be, stopping at the target. Returns the number of clues left.
+     */
+    private int removeClues(SudokuGrid puzzle, SplittableRandom random) {
+
+        for (int i = 0; i < SudokuGrid.CELL_COUNT; i++) {
+            int j = random.nextInt(i + 1);
+            this.cellOrder[i] = this.cellOrder[j];
+            this.cellOrder[j] = i;
+        }
+
+        int clueCount = SudokuGrid.CELL_COUNT;
+
+        for (int cell : this.cellOrder) {
+
+            if (clueCount <= this.targetClues) {
+                break;
+            }
+
+            int val = puzzle.get(cell);
+            puzzle.set(cell, 0);
+            this.masks.remove(cell, val);
+
+            // Easy puzzles must stay solvable without guessing, which also
+            // means they keep one solution
+            boolean keep = this.isForced(puzzle, cell, val)
+                    || (this.difficulty == SudokuDifficulty.EASY
+                        ? this.isSolvedByDeduction(puzzle)
+                        : this.hasOneSolution(puzzle, cell, val));
+
+            if (keep) {
+                clueCount--;
+            }
+            else {
+                puzzle.set(cell, val);
+                this.masks.place(cell, val);
+            }
+        }
+
+        return clueCount;
+    }
+
+    /* Whether the other clues force the value taken out of a cell back
+     * into it, as the cell's only candidate or the only place left for the
+     * value in one of the cell's units. The puzzle then still has one
+     * solution, and is solved by deduction if it was before, so no search
+     * is needed. The masks hold the candidates left by the other clues.
+     */
+    private boolean isForced(SudokuGrid puzzle, int cell, int val) {
+
+        int bit = SudokuCandidateMasks.valueBit(val);
+
+        if (this.masks.getCandidates(cell) == bit) {
+            return true;
+        }
+
+        for (int[] unit : SudokuPropagator.UNITS) {
+
+            if (!contains(unit, cell)) {
+                continue;
+            }
+
+            boolean elsewhere = false;
+
+            for (int other : unit) {
+                if (other != cell && puzzle.get(other) == 0
+                        && (this.masks.getCandidates(other) & bit) != 0) {
+                    elsewhere = true;
+                    break;
+                }
+            }
+
+            if (!elsewhere) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean contains(int[] unit, int cell) {
+
+        for (int other : unit) {
+            if (other == cell) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /* Whether a puzzle that had one solution before the value was taken
+     * out of the cell still does. Any other solution would have to put
+     * another value there, so it is enough to search for a solution with
+     * the value ruled out of the cell. The search checks candidates
+     * against the clues and fills singles, which for a puzzle with one
+     * solution is far quicker than SudokuPropagator's deductions. It keeps
+     * the candidates of every cell at each level, with a filled cell
+     * holding its value's bit and FILLED.
+     */
+    private boolean hasOneSolution(SudokuGrid puzzle, int cell, int val) {
+
+        int[] candidates = this.searchCandidates[0];
+
+        for (int i = 0; i < SudokuGrid.CELL_COUNT; i++) {
+            int clue = puzzle.get(i);
+            candidates[i] = clue == 0 ? this.masks.getCandidates(i)
+                    : SudokuCandidateMasks.valueBit(clue) | FILLED;
+        }
+
+        candidates[cell] &= ~SudokuCandidateMasks.valueBit(val);
+
+        return !this.search(0);
+    }
+
+    /* Each level fills a value that has only one place left in a unit if
+     * there is one, and otherwise branches on the empty cell with the
+     * fewest candidates.
+     */
+    private boolean search(int depth) {
+
+        int[] candidates = this.searchCandidates[depth];
+        int cell = SudokuCandidateMasks.getBestEmptyCell(candidates,
+                                                         FILLED);
+
+        if (cell == -1) {
+            return true;
+        }
+
+        int remaining = candidates[cell];
+
+        if (Integer.bitCount(remaining) > 1) {
+
+            for (int[] unit : SudokuPropagator.UNITS) {
+
+                int placed = 0;
+                int seenOnce = 0;
+                int seenTwice = 0;
+
+                for (int other : unit) {
+                    if ((candidates[other] & FILLED) != 0) {
+                        placed |= candidates[other];
+                    }
+                    else {
+                        seenTwice |= seenOnce & candidates[other];
+                        seenOnce |= candidates[other];
+                    }
+                }
+
+                if (((placed | seenOnce) & SudokuCandidateMasks.ALL_VALUES)
+                        != SudokuCandidateMasks.ALL_VALUES) {
+                    return false;
+                }
+
+                int singles = seenOnce & ~seenTwice;
+
+                if (singles != 0) {
+                    remaining = singles & -singles;
+                    for (int other : unit) {
+                        if ((candidates[other] & remaining) != 0) {
+                            cell = other;
+                            break;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+
+        int[] next = this.searchCandidates[depth + 1];
+
+        while (remaining != 0) {
+
+            int bit = remaining & -remaining;
+            remaining ^= bit;
+
+            System.arraycopy(candidates, 0, next, 0, SudokuGrid.CELL_COUNT);
+
+            if (fillCell(next, cell, bit) && this.search(depth + 1)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /* Fill a cell with the value of a bit, taking it from the candidates
+     * of the cell's peers and filling any peer left with one candidate.
+     * Returns false if a peer is left with none.
+     */
+    private static boolean fillCell(int[] candidates, int cell, int bit) {
+
+        candidates[cell] = bit | FILLED;
+
+        for (int peer : SudokuPropagator.PEERS[cell]) {
+
+            int peerCandidates = candidates[peer];
+
+            if ((peerCandidates & bit) != 0) {
+
+                if ((peerCandidates & FILLED) != 0) {
+                    return false;
+                }
+
+                peerCandidates ^= bit;
+                candidates[peer] = peerCandidates;
+
+                if (peerCandidates == 0) {
+                    return false;
+                }
+
+                if ((peerCandidates & (peerCandidates - 1)) == 0
+                        && !fillCell(candidates, peer, peerCandidates)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isSolvedByDeduction(SudokuGrid puzzle) {
+        return this.propagator.load(puzzle) && this.propagator.propagate()
+                && this.propagator.getEmptyCount() == 0;
+    }
+}
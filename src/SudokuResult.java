@@ -0,0 +1,118 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filename:    SudokuResult.java
+ * Purpose:     The outcome of one solve by SudokuEngine: the solutions
+ *              found, how many there were, why the search stopped, how
+ *              long it took and the work the search did.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuResult implements AutoCloseable {
+
+    public enum Status {
+
+        // Every solution was found
+        COMPLETE,
+
+        // The search stopped at the maximum number of solutions
+        MAX_SOLUTIONS_REACHED,
+
+        // The search stopped at the time limit
+        TIMED_OUT
+    }
+
+    private final Status status;
+    private final SudokuSolutionBuffer solutions;
+    private final int deducedCount;
+    private final long elapsedNanos;
+    private final SudokuSolverStats stats;
+
+    public SudokuResult(Status status, SudokuSolutionBuffer solutions,
+                        int deducedCount, long elapsedNanos) {
+        this(status, solutions, deducedCount, elapsedNanos,
+             new SudokuSolverStats());
+    }
+
+    public SudokuResult(Status status, SudokuSolutionBuffer solutions,
+                        int deducedCount, long elapsedNanos,
+                        SudokuSolverStats stats) {
+        this.status = status;
+        this.solutions = solutions;
+        this.deducedCount = deducedCount;
+        this.elapsedNanos = elapsedNanos;
+        this.stats = stats;
+    }
+
+    public Status getStatus() {
+        return this.status;
+    }
+
+    // Whether every solution of the puzzle was found
+    public boolean isComplete() {
+        return this.status == Status.COMPLETE;
+    }
+
+    public long getSolutionCount() {
+        return this.solutions.getCount();
+    }
+
+    // Solutions kept, which is none when only counting
+    public long getStoredSolutionCount() {
+        return this.solutions.getStoredCount();
+    }
+
+    // A kept solution, numbered from 0 in the order found
+    public SudokuGrid getSolution(long index) {
+
+        SudokuGrid grid = new SudokuGrid(this.solutions.getBoxSize());
+        this.solutions.copySolution(index, grid);
+
+        return grid;
+    }
+
+    // Copy a kept solution into a grid, to avoid creating a new one
+    public void copySolution(long index, SudokuGrid grid) {
+        this.solutions.copySolution(index, grid);
+    }
+
+    /* Every kept solution in a list. For very many solutions, reading them
+     * one at a time with copySolution() uses far less memory.
+     */
+    public List<SudokuGrid> getSolutions() {
+
+        List<SudokuGrid> list = new ArrayList<>();
+
+        for (long i = 0; i < this.solutions.getStoredCount(); i++) {
+            list.add(this.getSolution(i));
+        }
+
+        return list;
+    }
+
+    // Cells filled by constraint propagation before any searching
+    public int getDeducedCount() {
+        return this.deducedCount;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /* Counters of the search. A result from the cache did no searching,
+     * so only the solve itself is counted.
+     */
+    public SudokuSolverStats getStats() {
+        return this.stats;
+    }
+
+    // Drop the kept solutions, deleting any that were spilled to disk
+    @Override
+    public void close() {
+        this.solutions.clearSolutions();
+    }
+}
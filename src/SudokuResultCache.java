@@ -0,0 +1,224 @@
+package sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filename:    SudokuResultCache.java
+ * Purpose:     Remember the results of recent puzzles so that a puzzle seen
+ *              before, or any puzzle equivalent to it under the sudoku
+ *              symmetries, is answered without searching. Results are kept
+ *              in canonical form and mapped back to each caller's grid. Holds
+ *              a bounded number of puzzles, dropping the least recently used.
+ *              Safe to share between threads.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuResultCache {
+
+    /* Most solutions kept for one puzzle. A puzzle with more keeps its
+     * count and only this many of its solutions, so it answers requests
+     * for at most this many solutions.
+     */
+    public static final int MAX_SOLUTIONS_PER_PUZZLE = 1024;
+
+    private final Map<String, Entry> entries;
+
+    private final ThreadLocal<SudokuCanonicalizer> canonicalizers
+            = ThreadLocal.withInitial(SudokuCanonicalizer::new);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // A puzzle in canonical form and the symmetry that gives it
+    public static class Key {
+
+        private final String canonical;
+        private final SudokuSymmetry symmetry;
+
+        private Key(String canonical, SudokuSymmetry symmetry) {
+            this.canonical = canonical;
+            this.symmetry = symmetry;
+        }
+    }
+
+    // What is known about one canonical puzzle, never changed once made
+    private static class Entry {
+
+        private final long count;
+
+        // False if the search stopped at a maximum, which count then equals
+        private final boolean complete;
+
+        /* Canonical solutions packed in order, or null if not kept. May
+         * hold fewer than count, but never more than the maximum kept.
+         */
+        private final long[] solutions;
+
+        private Entry(long count, boolean complete, long[] solutions) {
+            this.count = count;
+            this.complete = complete;
+            this.solutions = solutions;
+        }
+
+        private int getStoredCount() {
+            return this.solutions == null
+                    ? 0 : this.solutions.length / SudokuGrid.PACKED_LENGTH;
+        }
+
+        // Whether this entry can give the count for a maximum
+        private boolean hasCount(long maxSolutions) {
+            return this.complete || this.count >= maxSolutions;
+        }
+
+        // Whether this entry can give the solutions for a maximum
+        private boolean hasSolutions(long maxSolutions) {
+            return this.getStoredCount() >= maxSolutions
+                    || (this.complete && this.getStoredCount() == this.count);
+        }
+
+        /* An entry that can answer every request either this or the other
+         * can, taking the count and the solutions each from whichever knows
+         * more. Any solutions are still solutions of the same puzzle.
+         */
+        private Entry mergedWith(Entry other) {
+
+            Entry counted = this.complete
+                    || (!other.complete && this.count >= other.count)
+                    ? this : other;
+            Entry stored = this.getStoredCount() >= other.getStoredCount()
+                    ? this : other;
+
+            if (counted == stored) {
+                return counted;
+            }
+
+            return new Entry(counted.count, counted.complete,
+                             stored.solutions);
+        }
+    }
+
+    public SudokuResultCache(final int maxPuzzles) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> e) {
+                return this.size() > maxPuzzles;
+            }
+        };
+    }
+
+    /* Find the canonical form of a puzzle, which takes no lock. Returns
+     * null for a puzzle with too few clues to be worth caching, which
+     * lookup() and store() then ignore.
+     */
+    public Key getKey(SudokuGrid puzzle) {
+
+        SudokuGrid canonical = new SudokuGrid();
+        SudokuSymmetry symmetry = new SudokuSymmetry();
+
+        if (!this.canonicalizers.get().canonicalize(puzzle, canonical,
+                                                    symmetry)) {
+            return null;
+        }
+
+        StringBuilder text = new StringBuilder(SudokuGrid.CELL_COUNT);
+        canonical.appendDigits(text);
+
+        return new Key(text.toString(), symmetry);
+    }
+
+    /* Fill an empty buffer from the cache, returning false if the cache
+     * cannot answer with the buffer's maximum and whether it keeps
+     * solutions. Solutions may come in a different order than a search
+     * would find them, and when stopping at a maximum may be different
+     * solutions.
+     */
+    public boolean lookup(Key key, SudokuSolutionBuffer buffer) {
+
+        if (key == null) {
+            return false;
+        }
+
+        Entry entry;
+
+        synchronized (this.entries) {
+            entry = this.entries.get(key.canonical);
+        }
+
+        if (entry == null
+                || !entry.hasCount(buffer.getMaxSolutions())
+                || (buffer.isStoringSolutions()
+                    && !entry.hasSolutions(buffer.getMaxSolutions()))) {
+            this.misses.incrementAndGet();
+            return false;
+        }
+
+        this.hits.incrementAndGet();
+
+        if (!buffer.isStoringSolutions()) {
+            buffer.addCount(entry.count);
+            return true;
+        }
+
+        SudokuGrid canonical = new SudokuGrid();
+        SudokuGrid solution = new SudokuGrid();
+        long count = Math.min(entry.getStoredCount(),
+                              buffer.getMaxSolutions());
+
+        for (int i = 0; i < count; i++) {
+            canonical.unpack(entry.solutions, i * SudokuGrid.PACKED_LENGTH);
+            key.symmetry.invert(canonical, solution);
+            buffer.addSolution(solution);
+        }
+
+        return true;
+    }
+
+    /* Remember the result of a search, merged with what is already known
+     * about the puzzle. Results cut short by the time limit or by
+     * cancelling are not kept.
+     */
+    public void store(Key key, SudokuSolutionBuffer buffer) {
+
+        if (key == null || buffer.isCancelled()) {
+            return;
+        }
+
+        long[] solutions = null;
+
+        if (buffer.isStoringSolutions()) {
+
+            int count = (int) Math.min(buffer.getCount(),
+                                       MAX_SOLUTIONS_PER_PUZZLE);
+            SudokuGrid solution = new SudokuGrid();
+            SudokuGrid canonical = new SudokuGrid();
+
+            solutions = new long[count * SudokuGrid.PACKED_LENGTH];
+
+            for (int i = 0; i < count; i++) {
+                buffer.copySolution(i, solution);
+                key.symmetry.apply(solution, canonical);
+                canonical.pack(solutions, i * SudokuGrid.PACKED_LENGTH);
+            }
+        }
+
+        Entry entry = new Entry(buffer.getCount(),
+                                !buffer.reachedMaxSolutions(), solutions);
+
+        synchronized (this.entries) {
+            Entry existing = this.entries.get(key.canonical);
+            this.entries.put(key.canonical,
+                    existing == null ? entry : existing.mergedWith(entry));
+        }
+    }
+
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    public long getMissCount() {
+        return this.misses.get();
+    }
+}
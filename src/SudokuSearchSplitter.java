@@ -0,0 +1,155 @@
+package sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Filename:    SudokuSearchSplitter.java
+ * Purpose:     Cut the search tree of a 9x9 grid into disjoint subtrees at
+ *              a given depth and hand them out one at a time in the order a
+ *              single thread would search them. Each subtree is given by
+ *              the branches down to it: the cell branched on at each level,
+ *              the value taken there and the values not yet tried, so the
+ *              position can be saved and picked up again later.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSearchSplitter {
+
+    private final SudokuGrid grid;
+    private final int splitDepth;
+    private final SudokuSolverStats stats;
+
+    // Finds the cell to branch on and its candidates at each level
+    private final SudokuBacktrackingSolver solver;
+
+    // Branches down to the subtree handed out last: the cell, the value
+    // taken and a mask of the values not yet tried at each level
+    private final int[] cells = new int[SudokuGrid.CELL_COUNT];
+    private final int[] values = new int[SudokuGrid.CELL_COUNT];
+    private final int[] untried = new int[SudokuGrid.CELL_COUNT];
+    private int levelCount = 0;
+    private boolean started = false;
+
+    /* The solver decides which cell each level branches on, so it should
+     * be set up as the subtrees will be searched. The cells branched on
+     * are counted as search nodes in stats.
+     */
+    public SudokuSearchSplitter(SudokuGrid grid,
+                                SudokuBacktrackingSolver solver,
+                                int splitDepth, SudokuSolverStats stats) {
+        this.grid = grid;
+        this.solver = solver;
+        this.splitDepth = splitDepth;
+        this.stats = stats;
+    }
+
+    /* Carry on after the subtree with the given branches, as recorded by
+     * getCells(), getValues() and getUntried().
+     */
+    public void restore(int[] cells, int[] values, int[] untried,
+                        int levelCount) {
+        System.arraycopy(cells, 0, this.cells, 0, levelCount);
+        System.arraycopy(values, 0, this.values, 0, levelCount);
+        System.arraycopy(untried, 0, this.untried, 0, levelCount);
+        this.levelCount = levelCount;
+        this.started = true;
+    }
+
+    /* Move to the next subtree in search order: back up from the last one
+     * to the deepest level with a value left to try, then take the first
+     * value at every level below that down to the split depth. Returns
+     * false once every subtree has been handed out.
+     */
+    public boolean next() {
+
+        if (this.started) {
+
+            while (this.levelCount > 0
+                    && this.untried[this.levelCount - 1] == 0) {
+                this.levelCount--;
+            }
+
+            if (this.levelCount == 0) {
+                return false;
+            }
+
+            int level = this.levelCount - 1;
+            int bit = this.untried[level] & -this.untried[level];
+            this.untried[level] ^= bit;
+            this.values[level] = SudokuCandidateMasks.bitValue(bit);
+        }
+
+        this.started = true;
+
+        boolean consistent = this.solver.load(this.grid);
+
+        for (int i = 0; i < this.levelCount && consistent; i++) {
+            consistent = this.solver.place(this.cells[i], this.values[i]);
+        }
+
+        // A subtree whose branches fail is still handed out, so that its
+        // searcher counts the failure as the single-threaded search does
+        while (consistent && this.levelCount < this.splitDepth) {
+
+            int cell = this.solver.getBranchCell();
+
+            if (cell == -1) {
+                break;
+            }
+
+            int candidates = this.solver.getCandidates(cell);
+
+            if (candidates == 0) {
+                break;
+            }
+
+            // The cells branched on here are nodes of the search too
+            this.stats.addCounts(1, 9 - Integer.bitCount(candidates), 0, 0,
+                                 this.levelCount);
+
+            int bit = candidates & -candidates;
+            this.cells[this.levelCount] = cell;
+            this.values[this.levelCount] = SudokuCandidateMasks.bitValue(bit);
+            this.untried[this.levelCount] = candidates ^ bit;
+            this.levelCount++;
+
+            consistent = this.solver.place(cell,
+                                           SudokuCandidateMasks.bitValue(bit));
+        }
+
+        return true;
+    }
+
+    // Copies of the branches down to the current subtree
+    public int[] getCells() {
+        return Arrays.copyOf(this.cells, this.levelCount);
+    }
+
+    public int[] getValues() {
+        return Arrays.copyOf(this.values, this.levelCount);
+    }
+
+    public int[] getUntried() {
+        return Arrays.copyOf(this.untried, this.levelCount);
+    }
+
+    /* Fix the values of a subtree's branches in a solver that has loaded
+     * the grid, ready to search the subtree. Returns false if one of them
+     * is ruled out, counting it as the single-threaded search counts a
+     * value that propagation rules out.
+     */
+    public static boolean placeBranches(SudokuBacktrackingSolver solver,
+                                        int[] cells, int[] values,
+                                        SudokuSolverStats stats) {
+
+        for (int i = 0; i < cells.length; i++) {
+            if (!solver.place(cells[i], values[i])) {
+                stats.addCounts(0, 1, 1, 0, 0);
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
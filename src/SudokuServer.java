@@ -0,0 +1,383 @@
+package sudoku;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Filename:    SudokuServer.java
+ * Purpose:     Keep one warm process solving puzzles sent over a local
+ *              socket. Each request is one line holding an ID, a puzzle and
+ *              optional settings; requests from every connection are solved
+ *              concurrently on one pool of threads, and each response goes
+ *              back as soon as it is ready, tagged with its request's ID.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuServer {
+
+    // Address prefix choosing a Unix domain socket instead of a TCP port
+    public static final String UNIX_SOCKET_PREFIX = "unix:";
+
+    // Requests a connection may have in progress before reading pauses
+    private static final int MAX_PENDING_PER_CONNECTION = 1024;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Longest request line accepted
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    /* Most solutions in one response, so that a request for a puzzle with
+     * millions of them cannot fill the heap. Requests asking for more, or
+     * for no maximum, stop here and get '+'. Counting is not limited.
+     */
+    public static final long MAX_SOLUTIONS_PER_RESPONSE = 1024;
+
+    // Marks the end of a connection's responses
+    private static final String END_OF_RESPONSES = new String();
+
+    private final SudokuSolveOptions defaultOptions;
+    private final SudokuEngine engine;
+
+    // Totals of every request's search statistics, or null to not keep them
+    private final SudokuSolverMonitor monitor;
+    private final ExecutorService workers;
+    private final ExecutorService connections
+            = Executors.newCachedThreadPool();
+
+    /* Options apply to every request unless the request overrides them.
+     * Requests are always solved on a single thread each.
+     */
+    public SudokuServer(SudokuSolveOptions defaultOptions) {
+        this(defaultOptions, null);
+    }
+
+    // Requests are answered from the cache when it can, if not null
+    public SudokuServer(SudokuSolveOptions defaultOptions,
+                        SudokuResultCache cache) {
+        this(defaultOptions, cache, null);
+    }
+
+    // Each request's search statistics are recorded in monitor if not null
+    public SudokuServer(SudokuSolveOptions defaultOptions,
+                        SudokuResultCache cache, SudokuSolverMonitor monitor) {
+        this.monitor = monitor;
+        this.engine = new SudokuEngine(ForkJoinPool.commonPool(), cache);
+        this.defaultOptions = new SudokuSolveOptions(defaultOptions);
+        this.defaultOptions.setUseMultithreading(false);
+        this.workers = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /* Listen on a TCP port of the loopback address, or on a Unix domain
+     * socket for an address of the form "unix:path", until the process is
+     * stopped.
+     */
+    public void serve(String address) throws IOException {
+
+        ServerSocketChannel server;
+
+        if (address.startsWith(UNIX_SOCKET_PREFIX)) {
+            Path path = Paths.get(
+                    address.substring(UNIX_SOCKET_PREFIX.length()));
+            Files.deleteIfExists(path);
+            path.toFile().deleteOnExit();
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(path));
+        }
+        else {
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                              Integer.parseInt(address)));
+        }
+
+        System.err.println("Listening on " + server.getLocalAddress());
+
+        while (true) {
+            SocketChannel channel = server.accept();
+            this.connections.execute(() -> this.handleConnection(channel));
+        }
+    }
+
+    private void handleConnection(SocketChannel channel) {
+
+        BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+        Semaphore pending = new Semaphore(MAX_PENDING_PER_CONNECTION);
+
+        // Responses are written by a thread of their own so reading never
+        // waits for the client to take them
+        this.connections.execute(() -> writeResponses(channel, responses));
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            StringBuilder line = new StringBuilder();
+            boolean lineTooLong = false;
+
+            buffer.flip();
+
+            while (true) {
+
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    continue;
+                }
+
+                char c = (char) (buffer.get() & 0xFF);
+
+                if (c != '\n') {
+                    if (line.length() < MAX_LINE_LENGTH) {
+                        line.append(c);
+                    }
+                    else {
+                        lineTooLong = true;
+                    }
+                    continue;
+                }
+
+                if (lineTooLong) {
+                    responses.add(errorResponse(firstToken(line),
+                            "Request is longer than " + MAX_LINE_LENGTH
+                            + " characters"));
+                }
+                else if (line.toString().trim().length() > 0) {
+                    final String request = line.toString();
+                    pending.acquire();
+                    this.workers.execute(() -> {
+                        try {
+                            responses.add(this.respond(request));
+                        }
+                        catch (RuntimeException e) {
+                            // Every request gets exactly one response, so
+                            // the client never waits for one that is lost
+                            responses.add(errorResponse(firstToken(request),
+                                    "Could not solve request (" + e + ")"));
+                        }
+                        finally {
+                            pending.release();
+                        }
+                    });
+                }
+
+                line.setLength(0);
+                lineTooLong = false;
+            }
+
+            // Let every request already read finish before closing
+            pending.acquire(MAX_PENDING_PER_CONNECTION);
+        }
+        catch (IOException e) {
+            // The client has gone, so there is no one to report to
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            responses.add(END_OF_RESPONSES);
+        }
+    }
+
+    private static void writeResponses(SocketChannel channel,
+                                       BlockingQueue<String> responses) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        try {
+            while (true) {
+
+                String response = responses.take();
+
+                if (response == END_OF_RESPONSES) {
+                    break;
+                }
+
+                put(channel, buffer, response);
+
+                // Send once nothing else is ready, so a busy connection
+                // gets many responses per write
+                if (responses.isEmpty()) {
+                    send(channel, buffer);
+                }
+            }
+
+            send(channel, buffer);
+        }
+        catch (IOException e) {
+            // The client has gone, so its responses are dropped
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                // Nothing more can be done with the connection
+            }
+        }
+    }
+
+    private static void put(SocketChannel channel, ByteBuffer buffer,
+                            String response) throws IOException {
+
+        byte[] bytes = (response + "\n").getBytes(StandardCharsets.US_ASCII);
+
+        if (bytes.length > buffer.remaining()) {
+            send(channel, buffer);
+        }
+
+        if (bytes.length > buffer.remaining()) {
+            ByteBuffer large = ByteBuffer.wrap(bytes);
+            while (large.hasRemaining()) {
+                channel.write(large);
+            }
+            return;
+        }
+
+        buffer.put(bytes);
+    }
+
+    private static void send(SocketChannel channel, ByteBuffer buffer)
+            throws IOException {
+
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    private static String firstToken(CharSequence line) {
+
+        String trimmed = line.toString().trim();
+        int end = trimmed.indexOf(' ');
+
+        return end == -1 ? trimmed : trimmed.substring(0, end);
+    }
+
+    private static String errorResponse(String id, String message) {
+        return id + " error " + message;
+    }
+
+    /* Solve one request line: "ID PUZZLE [max=N] [count] [time=MS]",
+     * where PUZZLE is 81 characters. The response is "ID COUNT" with
+     * COUNT followed by '+' if the search stopped at the maximum or '?' if
+     * it stopped at the time limit, then each solution as 81 digits, all
+     * separated by spaces. At most MAX_SOLUTIONS_PER_RESPONSE solutions
+     * are given. A request that cannot be solved gets "ID error MESSAGE".
+     */
+    private String respond(String request) {
+
+        String[] tokens = request.trim().split("\\s+");
+        String id = tokens[0];
+
+        if (tokens.length < 2) {
+            return errorResponse(id, "Request has no puzzle");
+        }
+
+        SudokuSolveOptions options = new SudokuSolveOptions(
+                this.defaultOptions);
+
+        for (int i = 2; i < tokens.length; i++) {
+            String error = applyOption(tokens[i], options);
+            if (error != null) {
+                return errorResponse(id, error);
+            }
+        }
+
+        if (!options.isCountOnly()
+                && options.getMaxSolutions() > MAX_SOLUTIONS_PER_RESPONSE) {
+            options.setMaxSolutions(MAX_SOLUTIONS_PER_RESPONSE);
+        }
+
+        try (SudokuResult result = this.engine.solve(
+                SudokuEngine.parse(tokens[1]), options)) {
+
+            if (this.monitor != null) {
+                this.monitor.record(result.getStats());
+            }
+
+            StringBuilder response = new StringBuilder(
+                    id.length() + 12 + 82 * (int) Math.min(
+                            result.getStoredSolutionCount(), 16));
+
+            response.append(id).append(' ').append(result.getSolutionCount());
+
+            if (result.getStatus() == SudokuResult.Status.TIMED_OUT) {
+                response.append('?');
+            }
+            else if (result.getStatus()
+                    == SudokuResult.Status.MAX_SOLUTIONS_REACHED) {
+                response.append('+');
+            }
+
+            SudokuGrid solution = new SudokuGrid();
+
+            for (long i = 0; i < result.getStoredSolutionCount(); i++) {
+                result.copySolution(i, solution);
+                response.append(' ');
+                solution.appendDigits(response);
+            }
+
+            return response.toString();
+        }
+        catch (SudokuException e) {
+            return errorResponse(id, e.getMessage());
+        }
+    }
+
+    // Apply one per-request setting, returning an error message if bad
+    private static String applyOption(String token,
+                                      SudokuSolveOptions options) {
+
+        try {
+            if (token.equals("count")) {
+                options.setCountOnly(true);
+            }
+            else if (token.startsWith("max=")) {
+                long maxSolutions = Long.parseLong(token.substring(4));
+                if (maxSolutions < 1) {
+                    return "max= needs a whole number of 1 or more";
+                }
+                options.setMaxSolutions(maxSolutions);
+            }
+            else if (token.startsWith("time=")) {
+                long timeLimit = Long.parseLong(token.substring(5));
+                if (timeLimit < 1) {
+                    return "time= needs a whole number of 1 or more";
+                }
+                options.setTimeLimitMillis(timeLimit);
+            }
+            else {
+                return "Unknown setting " + token;
+            }
+        }
+        catch (NumberFormatException e) {
+            return "Setting " + token + " needs a whole number";
+        }
+
+        return null;
+    }
+}
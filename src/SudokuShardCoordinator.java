@@ -0,0 +1,504 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filename:    SudokuShardCoordinator.java
+ * Purpose:     Search for the solutions of a 9x9 grid on several worker
+ *              processes. The search tree is cut at the split depth into
+ *              shards, each one the subtree under a prefix of branches, and
+ *              the shards are handed to SudokuShardWorker processes over
+ *              TCP connections. Their solutions are added to the results in
+ *              the order a single thread would find them. When a worker
+ *              stops, the shards it had not finished are handed to another.
+ *              Workers are started on this machine, but any process that
+ *              can reach the coordinator's port can join in.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuShardCoordinator {
+
+    // Shards sent to a worker before it reports back, so it is never idle
+    // waiting for the next one
+    private static final int SHARDS_PER_WORKER = 2;
+
+    // Shards handed out ahead of the oldest one not yet added, per worker
+    private static final int SHARDS_AHEAD_PER_WORKER = 16;
+
+    // Longest the coordinator waits before checking the time limit and
+    // that workers are still running
+    private static final long POLL_MILLIS = 100;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final SudokuSolutionBuffer results;
+    private final SudokuSolverStats stats;
+    private final int workerCount;
+
+    private final SudokuSearchSplitter splitter;
+    private final String jobLine;
+
+    // Everything below is guarded by this object's lock
+    private int nextShardId = 0;
+    private int nextAddedId = 0;
+    private boolean allHandedOut = false;
+    private boolean stopped = false;
+    private final ArrayDeque<Shard> retryShards = new ArrayDeque<>();
+    private final Map<Integer, Shard> finishedShards = new HashMap<>();
+    private final List<SocketChannel> connections = new ArrayList<>();
+    private int connectedCount = 0;
+    private int liveCount = 0;
+    private int reassignedCount = 0;
+
+    public SudokuShardCoordinator(SudokuGrid grid, SudokuSolveOptions options,
+                                  SudokuSolutionBuffer results,
+                                  SudokuSolverStats stats) {
+
+        this.results = results;
+        this.stats = stats;
+        this.workerCount = options.getWorkerCount();
+
+        this.splitter = new SudokuSearchSplitter(grid,
+                new SudokuBacktrackingSolver(
+                        options.isUsingMinimumRemainingValues(),
+                        options.isUsingConstraintPropagation()),
+                options.getSplitDepth(), stats);
+
+        StringBuilder job = new StringBuilder("job ");
+        grid.appendDigits(job);
+        job.append(options.isUsingMinimumRemainingValues() ? " 1" : " 0")
+           .append(options.isUsingConstraintPropagation() ? " 1" : " 0")
+           .append(options.isCountOnly() ? " 1 " : " 0 ")
+           .append(options.getMaxSolutions()).append('\n');
+        this.jobLine = job.toString();
+    }
+
+    /* Start the workers and wait until every shard has been searched and
+     * added to the results, or the search is stopped. Throws IOException
+     * if the workers cannot be started or all of them stop early.
+     */
+    public void run() throws IOException {
+
+        List<Process> processes = new ArrayList<>();
+
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+
+            server.bind(new InetSocketAddress(
+                    InetAddress.getLoopbackAddress(), 0));
+
+            InetSocketAddress address
+                    = (InetSocketAddress) server.getLocalAddress();
+            String workerAddress = address.getAddress().getHostAddress()
+                    + ":" + address.getPort();
+
+            Thread acceptor = new Thread(() -> this.acceptWorkers(server),
+                                         "shard-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            for (int i = 0; i < this.workerCount; i++) {
+                processes.add(startWorker(workerAddress));
+            }
+
+            this.addShardsInOrder(processes);
+        }
+        finally {
+            this.stop();
+            for (Process process : processes) {
+                try {
+                    if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                        process.destroyForcibly();
+                    }
+                }
+                catch (InterruptedException e) {
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Start a copy of this program as a worker
+    private static Process startWorker(String address) throws IOException {
+
+        String java = Paths.get(System.getProperty("java.home"), "bin",
+                                "java").toString();
+
+        return new ProcessBuilder(java, "-cp",
+                System.getProperty("java.class.path"), Sudoku.class.getName(),
+                "--worker", address)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private void acceptWorkers(ServerSocketChannel server) {
+
+        try {
+            while (true) {
+
+                SocketChannel channel = server.accept();
+
+                synchronized (this) {
+                    if (this.stopped) {
+                        channel.close();
+                        return;
+                    }
+                    this.connections.add(channel);
+                    this.connectedCount++;
+                    this.liveCount++;
+                }
+
+                Thread thread = new Thread(() -> this.serveWorker(channel),
+                                           "shard-worker");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+        catch (IOException e) {
+            // The server socket is closed once the search is over
+        }
+    }
+
+    /* Add finished shards to the results in order, until every shard has
+     * been added or the search is stopped.
+     */
+    private void addShardsInOrder(List<Process> processes) throws IOException {
+
+        while (true) {
+
+            Shard shard;
+
+            synchronized (this) {
+
+                while (!this.finishedShards.containsKey(this.nextAddedId)
+                        && !(this.allHandedOut
+                             && this.nextAddedId == this.nextShardId)) {
+
+                    if (this.results.isStoppedNow()) {
+                        return;
+                    }
+
+                    if (this.liveCount == 0 && !anyAlive(processes)) {
+                        throw new IOException(this.connectedCount == 0
+                                ? "no worker process could connect"
+                                : "every worker process stopped");
+                    }
+
+                    try {
+                        this.wait(POLL_MILLIS);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        this.results.cancel();
+                        return;
+                    }
+                }
+
+                shard = this.finishedShards.remove(this.nextAddedId);
+
+                if (shard == null) {
+                    return;
+                }
+
+                this.nextAddedId++;
+                this.notifyAll();
+            }
+
+            this.add(shard);
+
+            if (this.results.isStoppedNow()) {
+                return;
+            }
+        }
+    }
+
+    private static boolean anyAlive(List<Process> processes) {
+
+        for (Process process : processes) {
+            if (process.isAlive()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Add a shard's solutions one at a time, so the maximum is kept to
+    private void add(Shard shard) {
+
+        if (this.results.isStoringSolutions()) {
+            SudokuGrid solution = new SudokuGrid();
+            for (long i = 0; i < shard.buffer.getStoredCount(); i++) {
+                shard.buffer.copySolution(i, solution);
+                this.results.addSolution(solution);
+            }
+            shard.buffer.clearSolutions();
+        }
+        else {
+            this.results.addCount(shard.buffer.getCount());
+        }
+
+        this.stats.addAll(shard.stats);
+    }
+
+    // Close every connection, so the workers and their threads finish
+    private synchronized void stop() {
+
+        this.stopped = true;
+
+        for (SocketChannel channel : this.connections) {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                // Already closed
+            }
+        }
+
+        this.notifyAll();
+    }
+
+    /* The next shard for a worker: one given back by a worker that
+     * stopped, or else a new one, as long as it is not too far ahead of
+     * the shards added so far. If wait is true, waits for one unless all
+     * have been searched. Returns null if there is none.
+     */
+    private synchronized Shard takeShard(boolean wait) {
+
+        while (!this.stopped) {
+
+            if (!this.retryShards.isEmpty()) {
+                return this.retryShards.poll();
+            }
+
+            int maxAhead = SHARDS_AHEAD_PER_WORKER
+                    * Math.max(this.workerCount, this.liveCount);
+
+            if (!this.allHandedOut
+                    && this.nextShardId - this.nextAddedId < maxAhead) {
+                if (this.splitter.next()) {
+                    return new Shard(this.nextShardId++,
+                                     this.splitter.getCells(),
+                                     this.splitter.getValues());
+                }
+                this.allHandedOut = true;
+            }
+
+            if (!wait || (this.allHandedOut
+                          && this.nextAddedId == this.nextShardId)) {
+                return null;
+            }
+
+            try {
+                this.wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private synchronized void finish(Shard shard) {
+        this.finishedShards.put(shard.id, shard);
+        this.notifyAll();
+    }
+
+    // Hand the unfinished shards of a worker that stopped to the others
+    private synchronized void giveBack(ArrayDeque<Shard> shards) {
+
+        this.liveCount--;
+
+        if (!this.stopped) {
+            for (Shard shard : shards) {
+                this.retryShards.add(new Shard(shard.id, shard.cells,
+                                               shard.values));
+                this.reassignedCount++;
+            }
+        }
+
+        this.notifyAll();
+    }
+
+    /* Send shards to one worker and read back what it finds, a couple of
+     * shards at a time.
+     */
+    private void serveWorker(SocketChannel channel) {
+
+        ArrayDeque<Shard> outstanding = new ArrayDeque<>();
+
+        try {
+            BufferedReader reader = new BufferedReader(
+                    Channels.newReader(channel, StandardCharsets.US_ASCII),
+                    BUFFER_SIZE);
+            Writer writer = new BufferedWriter(
+                    Channels.newWriter(channel, StandardCharsets.US_ASCII),
+                    BUFFER_SIZE);
+
+            String name = splitLine(reader.readLine(), "ready", 2)[1];
+
+            writer.write(this.jobLine);
+
+            while (true) {
+
+                while (outstanding.size() < SHARDS_PER_WORKER) {
+                    Shard shard = this.takeShard(outstanding.isEmpty());
+                    if (shard == null) {
+                        break;
+                    }
+                    writer.write(shard.toLine());
+                    outstanding.add(shard);
+                }
+
+                writer.flush();
+
+                if (outstanding.isEmpty()) {
+                    break;
+                }
+
+                this.readShard(reader, outstanding.peek(), name);
+                this.finish(outstanding.poll());
+            }
+
+            synchronized (this) {
+                this.liveCount--;
+                this.notifyAll();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            this.giveBack(outstanding);
+        }
+        finally {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    // Read the solutions and counters a worker sends for a shard
+    private void readShard(BufferedReader reader, Shard shard, String name)
+            throws IOException {
+
+        SudokuGrid solution = new SudokuGrid();
+        String solutionPrefix = "solution " + shard.id + " ";
+
+        while (true) {
+
+            String line = reader.readLine();
+
+            if (line == null) {
+                throw new IOException("Worker " + name + " disconnected");
+            }
+
+            if (line.startsWith(solutionPrefix)) {
+                for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+                    solution.set(cell, line.charAt(solutionPrefix.length()
+                                                   + cell) - '0');
+                }
+                shard.buffer.addSolution(solution);
+                continue;
+            }
+
+            String[] fields = splitLine(line, "done", 9);
+
+            if (Integer.parseInt(fields[1]) != shard.id) {
+                throw new IOException("Worker " + name + " finished shard "
+                        + fields[1] + " out of order");
+            }
+
+            if (!this.results.isStoringSolutions()) {
+                shard.buffer.addCount(Long.parseLong(fields[2]));
+            }
+
+            shard.stats.addCounts(Long.parseLong(fields[3]),
+                    Long.parseLong(fields[4]), Long.parseLong(fields[5]),
+                    Long.parseLong(fields[6]), Integer.parseInt(fields[7]));
+            shard.stats.addWorkerTime(name, Long.parseLong(fields[8]),
+                                      Long.parseLong(fields[3]));
+            return;
+        }
+    }
+
+    // Throws IllegalArgumentException if the line is not of the given kind
+    private static String[] splitLine(String line, String kind,
+                                      int minFields) {
+
+        String[] fields = line == null ? new String[0] : line.split(" ");
+
+        if (fields.length < minFields || !fields[0].equals(kind)) {
+            throw new IllegalArgumentException("Expected " + kind
+                    + " line but got " + line);
+        }
+
+        return fields;
+    }
+
+    public synchronized int getShardCount() {
+        return this.nextShardId;
+    }
+
+    public synchronized int getConnectedCount() {
+        return this.connectedCount;
+    }
+
+    // Shards handed to another worker after the one searching them stopped
+    public synchronized int getReassignedCount() {
+        return this.reassignedCount;
+    }
+
+    // The subtree under one prefix of branches, and what was found in it
+    private class Shard {
+
+        private final int id;
+        private final int[] cells;
+        private final int[] values;
+
+        // Only used by the thread reading from the shard's worker
+        private final SudokuSolutionBuffer buffer;
+        private final SudokuSolverStats stats = new SudokuSolverStats();
+
+        private Shard(int id, int[] cells, int[] values) {
+            this.id = id;
+            this.cells = cells;
+            this.values = values;
+            this.buffer = new SudokuSolutionBuffer(
+                    SudokuShardCoordinator.this.results.isStoringSolutions(),
+                    SudokuShardCoordinator.this.results.getMaxSolutions());
+        }
+
+        private String toLine() {
+
+            StringBuilder line = new StringBuilder("shard ").append(this.id);
+
+            for (int i = 0; i < this.cells.length; i++) {
+                line.append(' ').append(this.cells[i])
+                    .append(' ').append(this.values[i]);
+            }
+
+            return line.append('\n').toString();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filename:    SudokuShardWorker.java
+ * Purpose:     Search shards of one puzzle's search tree for a
+ *              SudokuShardCoordinator, as a process of its own. The worker
+ *              connects to the coordinator, is told the puzzle and settings,
+ *              then searches each shard it is sent, one at a time, sending
+ *              back its solutions and counters. It stops when the
+ *              coordinator closes the connection.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuShardWorker {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public SudokuShardWorker() {}
+
+    /* Work for the coordinator at an address of the form "host:port"
+     * until it has no more shards. Throws IOException if the connection
+     * fails or the coordinator sends something it should not.
+     */
+    public void run(String address) throws IOException {
+
+        int colon = address.lastIndexOf(':');
+
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(
+                address.substring(0, colon),
+                Integer.parseInt(address.substring(colon + 1))))) {
+
+            BufferedReader reader = new BufferedReader(
+                    Channels.newReader(channel, StandardCharsets.US_ASCII));
+            Writer writer = new BufferedWriter(Channels.newWriter(channel,
+                    StandardCharsets.US_ASCII), BUFFER_SIZE);
+
+            writer.write("ready worker-" + ProcessHandle.current().pid()
+                    + "\n");
+            writer.flush();
+
+            String[] job = splitLine(reader.readLine(), "job", 6);
+            SudokuGrid grid = new SudokuGrid();
+
+            for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+                grid.set(cell, job[1].charAt(cell) - '0');
+            }
+
+            SudokuBacktrackingSolver solver = new SudokuBacktrackingSolver(
+                    job[2].equals("1"), job[3].equals("1"));
+            boolean countOnly = job[4].equals("1");
+            long maxSolutions = Long.parseLong(job[5]);
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                this.searchShard(line, grid, solver, countOnly, maxSolutions,
+                                 writer);
+            }
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        catch (RuntimeException e) {
+            throw new IOException("Unexpected message from coordinator", e);
+        }
+    }
+
+    /* Search the shard given by a line "shard ID CELL VALUE CELL VALUE
+     * ...", sending a line "solution ID DIGITS" for each solution unless
+     * only counting, then "done ID" followed by the solution count and the
+     * counters of SudokuSolverStats.
+     */
+    private void searchShard(String line, SudokuGrid grid,
+                             SudokuBacktrackingSolver solver,
+                             boolean countOnly, long maxSolutions,
+                             Writer writer) throws IOException {
+
+        String[] fields = splitLine(line, "shard", 2);
+        String id = fields[1];
+        int levelCount = (fields.length - 2) / 2;
+        int[] cells = new int[levelCount];
+        int[] values = new int[levelCount];
+
+        for (int i = 0; i < levelCount; i++) {
+            cells[i] = Integer.parseInt(fields[2 + 2 * i]);
+            values[i] = Integer.parseInt(fields[3 + 2 * i]);
+        }
+
+        ShardSink sink = new ShardSink(writer, id, countOnly, maxSolutions);
+        SudokuSolverStats stats = new SudokuSolverStats();
+        long startTime = System.nanoTime();
+
+        if (solver.load(grid)
+                && SudokuSearchSplitter.placeBranches(solver, cells, values,
+                                                      stats)) {
+            solver.solve(sink);
+        }
+
+        solver.addStatsTo(stats);
+
+        writer.write("done " + id + " " + sink.count + " "
+                + stats.getNodeCount() + " " + stats.getRejectedCount() + " "
+                + stats.getBacktrackCount() + " "
+                + stats.getPropagationFillCount() + " " + stats.getMaxDepth()
+                + " " + (System.nanoTime() - startTime) + "\n");
+        writer.flush();
+    }
+
+    // Throws IllegalArgumentException if the line is not of the given kind
+    private static String[] splitLine(String line, String kind,
+                                      int minFields) {
+
+        String[] fields = line == null ? new String[0] : line.split(" ");
+
+        if (fields.length < minFields || !fields[0].equals(kind)) {
+            throw new IllegalArgumentException("Expected " + kind
+                    + " line but got " + line);
+        }
+
+        return fields;
+    }
+
+    // Sends each solution to the coordinator as it is found
+    private static class ShardSink implements SudokuSolutionSink {
+
+        private final Writer writer;
+        private final String prefix;
+        private final boolean countOnly;
+        private final long maxSolutions;
+        private final StringBuilder line = new StringBuilder();
+        private long count = 0;
+
+        private ShardSink(Writer writer, String id, boolean countOnly,
+                          long maxSolutions) {
+            this.writer = writer;
+            this.prefix = "solution " + id + " ";
+            this.countOnly = countOnly;
+            this.maxSolutions = maxSolutions;
+        }
+
+        @Override
+        public void addSolution(SudokuGrid grid) {
+
+            this.count++;
+
+            if (this.countOnly) {
+                return;
+            }
+
+            this.line.setLength(0);
+            this.line.append(this.prefix);
+            grid.appendDigits(this.line);
+            this.line.append('\n');
+
+            try {
+                this.writer.append(this.line);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean isStopped() {
+            return this.count >= this.maxSolutions;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package sudoku;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filename:    SudokuSolutionBuffer.java
+ * Purpose:     Count and optionally keep the solutions found by one solver,
+ *              stopping every solver that shares its counter once the
+ *              maximum number of solutions has been found, the time limit
+ *              has passed or the solve has been cancelled.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolutionBuffer implements SudokuSolutionSink {
+
+    // Time limit meaning the search may run for as long as it needs
+    public static final long NO_TIME_LIMIT = 0;
+
+    /* Calls to isStopped() between readings of the clock, which keeps the
+     * cost of the time limit small while still checking it every few
+     * microseconds of searching.
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final boolean storeSolutions;
+    private final long maxSolutions;
+
+    // State of the whole solve, shared by every buffer taking part in it
+    private final SharedState shared;
+
+    private final int boxSize;
+    private final SudokuSolutionStore solutions;
+    private long count = 0;
+    private int checksSinceClock = 0;
+
+    private static class SharedState {
+
+        private final AtomicLong count = new AtomicLong();
+        private final boolean hasDeadline;
+        private final long timeLimitNanos;
+        private volatile long deadline;
+        private volatile boolean deadlineHeld = false;
+        private volatile boolean cancelled = false;
+        private volatile boolean timedOut = false;
+
+        private SharedState(long timeLimitMillis) {
+            this.hasDeadline = timeLimitMillis != NO_TIME_LIMIT;
+            this.timeLimitNanos = TimeUnit.MILLISECONDS.toNanos(
+                    timeLimitMillis);
+            this.deadline = System.nanoTime() + this.timeLimitNanos;
+        }
+    }
+
+    public SudokuSolutionBuffer(boolean storeSolutions, long maxSolutions) {
+        this(storeSolutions, maxSolutions, NO_TIME_LIMIT);
+    }
+
+    /* The time limit, in milliseconds, is counted from when the buffer is
+     * created.
+     */
+    public SudokuSolutionBuffer(boolean storeSolutions, long maxSolutions,
+                                long timeLimitMillis) {
+        this(storeSolutions, maxSolutions, timeLimitMillis, 3);
+    }
+
+    // A buffer for grids with boxes of boxSize squares a side
+    public SudokuSolutionBuffer(boolean storeSolutions, long maxSolutions,
+                                long timeLimitMillis, int boxSize) {
+        this(storeSolutions, maxSolutions, new SharedState(timeLimitMillis),
+             boxSize, SudokuSolutionStore.DEFAULT_HEAP_SOLUTIONS);
+    }
+
+    private SudokuSolutionBuffer(boolean storeSolutions, long maxSolutions,
+                                 SharedState shared, int boxSize,
+                                 int maxHeapSolutions) {
+        this.storeSolutions = storeSolutions;
+        this.maxSolutions = maxSolutions;
+        this.shared = shared;
+        this.boxSize = boxSize;
+        this.solutions = new SudokuSolutionStore(maxHeapSolutions,
+                SudokuGrid.packedLength(boxSize));
+    }
+
+    // A new empty buffer sharing this buffer's settings, counter and limits
+    public SudokuSolutionBuffer newSharedBuffer() {
+        return this.newSharedBuffer(
+                SudokuSolutionStore.DEFAULT_HEAP_SOLUTIONS);
+    }
+
+    /* Like newSharedBuffer(), keeping at most maxHeapSolutions on the heap
+     * before spilling the rest to disk
+     */
+    public SudokuSolutionBuffer newSharedBuffer(int maxHeapSolutions) {
+        return new SudokuSolutionBuffer(this.storeSolutions,
+                                        this.maxSolutions, this.shared,
+                                        this.boxSize, maxHeapSolutions);
+    }
+
+    @Override
+    public void addSolution(SudokuGrid grid) {
+
+        // Another thread may have reached the maximum first
+        if (this.shared.count.incrementAndGet() > this.maxSolutions) {
+            return;
+        }
+
+        this.count++;
+
+        if (this.storeSolutions) {
+            this.solutions.add(grid);
+        }
+    }
+
+    // Count solutions known without searching, up to the maximum
+    public void addCount(long number) {
+
+        long added = Math.min(number,
+                this.maxSolutions - this.shared.count.get());
+
+        if (added > 0) {
+            this.shared.count.addAndGet(added);
+            this.count += added;
+        }
+    }
+
+    @Override
+    public boolean isStopped() {
+
+        if (this.shared.cancelled
+                || this.shared.count.get() >= this.maxSolutions) {
+            return true;
+        }
+
+        if (this.shared.hasDeadline && !this.shared.deadlineHeld
+                && ++this.checksSinceClock >= CLOCK_CHECK_INTERVAL) {
+            this.checksSinceClock = 0;
+            if (System.nanoTime() - this.shared.deadline >= 0) {
+                this.shared.timedOut = true;
+                this.shared.cancelled = true;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Like isStopped(), but always reads the clock, for callers that only
+    // check now and then
+    public boolean isStoppedNow() {
+        this.checksSinceClock = CLOCK_CHECK_INTERVAL;
+        return this.isStopped();
+    }
+
+    // Count the time limit from now instead of from when it was created
+    public void restartTimeLimit() {
+        this.shared.deadline = System.nanoTime() + this.shared.timeLimitNanos;
+    }
+
+    /* While held, the time limit does not stop any solver sharing this
+     * buffer. Once released, a limit that has already passed stops them
+     * at the next check.
+     */
+    public void setTimeLimitHeld(boolean held) {
+        this.shared.deadlineHeld = held;
+    }
+
+    /* Ask every solver sharing this buffer to stop as soon as it can. Safe
+     * to call from any thread.
+     */
+    public void cancel() {
+        this.shared.cancelled = true;
+    }
+
+    // Whether the search was stopped before it could finish
+    public boolean isCancelled() {
+        return this.shared.cancelled;
+    }
+
+    // Whether the search was stopped by the time limit
+    public boolean isTimedOut() {
+        return this.shared.timedOut;
+    }
+
+    // Add the contents of another buffer after this buffer's own
+    public void addAll(SudokuSolutionBuffer other) {
+        this.count += other.count;
+        this.solutions.addAll(other.solutions);
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public long getStoredCount() {
+        return this.solutions.size();
+    }
+
+    // Copy a kept solution, numbered from 0 in the order found, into a grid
+    public void copySolution(long index, SudokuGrid grid) {
+        this.solutions.copySolution(index, grid);
+    }
+
+    // Drop the kept solutions, deleting any spilled to disk
+    public void clearSolutions() {
+        this.solutions.clear();
+    }
+
+    public int getBoxSize() {
+        return this.boxSize;
+    }
+
+    public boolean isStoringSolutions() {
+        return this.storeSolutions;
+    }
+
+    public long getMaxSolutions() {
+        return this.maxSolutions;
+    }
+
+    // Whether the search may have stopped before finding every solution
+    public boolean reachedMaxSolutions() {
+        return this.count >= this.maxSolutions;
+    }
+}
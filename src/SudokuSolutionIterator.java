@@ -0,0 +1,244 @@
+package sudoku;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Filename:    SudokuSolutionIterator.java
+ * Purpose:     Find the solutions to a sudoku grid one at a time, only doing
+ *              the search needed for the next solution when it is asked
+ *              for. The search keeps an explicit stack instead of recursing,
+ *              so it can stop after each solution and memory stays bounded
+ *              by the depth of the search.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolutionIterator implements Iterator<SudokuGrid> {
+
+    private final boolean useMinimumRemainingValues;
+    private final boolean useConstraintPropagation;
+
+    // Current grid when propagation is not used
+    private final SudokuGrid cells = new SudokuGrid();
+    private final SudokuCandidateMasks masks = new SudokuCandidateMasks();
+
+    // State at each depth of the search when propagation is used
+    private SudokuPropagator[] stateStack;
+
+    // For each depth: the cell branched on, the value in it (0 if none)
+    // and the candidates not yet tried
+    private final int[] branchCells = new int[82];
+    private final int[] branchValues = new int[82];
+    private final int[] untried = new int[82];
+    private int depth;
+
+    private SudokuGrid nextSolution;
+    private boolean finished = false;
+
+    /* The grid is copied, so it can be changed while the solutions are
+     * being read.
+     */
+    public SudokuSolutionIterator(SudokuGrid grid,
+                                  boolean useMinimumRemainingValues,
+                                  boolean useConstraintPropagation) {
+
+        this.useMinimumRemainingValues = useMinimumRemainingValues;
+        this.useConstraintPropagation = useConstraintPropagation;
+
+        if (!this.load(grid)) {
+            this.finished = true;
+            return;
+        }
+
+        this.depth = 0;
+        this.branchValues[0] = 0;
+
+        if (!this.chooseBranchCell(0)) {
+
+            // The grid is already full, or was filled by propagation
+            this.nextSolution = this.copyCurrentGrid(0);
+            this.depth = -1;
+        }
+    }
+
+    // A stream of the solutions, searched for as the stream is consumed
+    public static Stream<SudokuGrid> stream(SudokuGrid grid,
+                                       boolean useMinimumRemainingValues,
+                                       boolean useConstraintPropagation) {
+
+        SudokuSolutionIterator iterator = new SudokuSolutionIterator(grid,
+                useMinimumRemainingValues, useConstraintPropagation);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private boolean load(SudokuGrid grid) {
+
+        this.cells.copyFrom(grid);
+
+        for (int cell = 0; cell < SudokuGrid.CELL_COUNT; cell++) {
+            int val = grid.get(cell);
+            if (val != 0) {
+                if ((this.masks.getCandidates(cell)
+                        & SudokuCandidateMasks.valueBit(val)) == 0) {
+                    return false;
+                }
+                this.masks.place(cell, val);
+            }
+        }
+
+        if (!this.useConstraintPropagation) {
+            return true;
+        }
+
+        this.stateStack = new SudokuPropagator[82];
+        for (int i = 0; i < this.stateStack.length; i++) {
+            this.stateStack[i] = new SudokuPropagator();
+        }
+
+        return this.stateStack[0].load(grid) && this.stateStack[0].propagate();
+    }
+
+    /* Set the branch cell and its candidates for a depth, returning false
+     * if there are no empty cells left.
+     */
+    private boolean chooseBranchCell(int level) {
+
+        int cell;
+
+        if (this.useConstraintPropagation) {
+            SudokuPropagator state = this.stateStack[level];
+            if (this.useMinimumRemainingValues) {
+                cell = state.getBestEmptyCell();
+            }
+            else {
+                cell = state.getFirstEmptyCell();
+            }
+            if (cell == -1) {
+                return false;
+            }
+            this.untried[level] = state.getCandidates(cell);
+        }
+        else {
+            cell = this.useMinimumRemainingValues
+                    ? this.masks.getBestEmptyCell(this.cells)
+                    : SudokuCandidateMasks.getFirstEmptyCell(this.cells);
+            if (cell == -1) {
+                return false;
+            }
+            this.untried[level] = this.masks.getCandidates(cell);
+        }
+
+        this.branchCells[level] = cell;
+        this.branchValues[level] = 0;
+
+        return true;
+    }
+
+    private SudokuGrid copyCurrentGrid(int level) {
+
+        if (!this.useConstraintPropagation) {
+            return this.cells.copy();
+        }
+
+        SudokuGrid solution = new SudokuGrid();
+        this.stateStack[level].copyToGrid(solution);
+
+        return solution;
+    }
+
+    // Take the value out of the branch cell at a depth, if it has one
+    private void clearBranchValue(int level) {
+
+        int val = this.branchValues[level];
+
+        if (val != 0 && !this.useConstraintPropagation) {
+            int cell = this.branchCells[level];
+            this.masks.remove(cell, val);
+            this.cells.set(cell, 0);
+        }
+
+        this.branchValues[level] = 0;
+    }
+
+    // Try the next candidate at a depth, returning false if it fails
+    private boolean tryNextValue(int level) {
+
+        int bit = this.untried[level] & -this.untried[level];
+        int val = SudokuCandidateMasks.bitValue(bit);
+        int cell = this.branchCells[level];
+
+        this.untried[level] ^= bit;
+        this.branchValues[level] = val;
+
+        if (this.useConstraintPropagation) {
+            SudokuPropagator nextState = this.stateStack[level + 1];
+            nextState.copyFrom(this.stateStack[level]);
+            return nextState.assign(cell, val) && nextState.propagate();
+        }
+
+        this.cells.set(cell, val);
+        this.masks.place(cell, val);
+
+        return true;
+    }
+
+    // Run the search on to its next solution, or to its end
+    private void findNextSolution() {
+
+        while (this.depth >= 0) {
+
+            int level = this.depth;
+
+            this.clearBranchValue(level);
+
+            if (this.untried[level] == 0) {
+                this.depth--;
+                continue;
+            }
+
+            if (!this.tryNextValue(level)) {
+                continue;
+            }
+
+            if (!this.chooseBranchCell(level + 1)) {
+                this.nextSolution = this.copyCurrentGrid(level + 1);
+                return;
+            }
+
+            this.depth++;
+        }
+
+        this.finished = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        if (this.nextSolution == null && !this.finished) {
+            this.findNextSolution();
+        }
+
+        return this.nextSolution != null;
+    }
+
+    // The next solution, as a new grid the caller may keep
+    @Override
+    public SudokuGrid next() {
+
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        SudokuGrid solution = this.nextSolution;
+        this.nextSolution = null;
+
+        return solution;
+    }
+}
@@ -0,0 +1,20 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuSolutionSink.java
+ * Purpose:     Receives the solutions found by a sudoku solver and tells the
+ *              solver when it can stop searching.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public interface SudokuSolutionSink {
+
+    /* Take a solution. The solver keeps changing the grid after this
+     * returns, so it must be copied if it is to be kept.
+     */
+    void addSolution(SudokuGrid grid);
+
+    // Whether the solver should stop searching as soon as it can
+    boolean isStopped();
+}
@@ -0,0 +1,204 @@
+package sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filename:    SudokuSolutionStore.java
+ * Purpose:     Keep packed solutions in order, the first ones in a bounded
+ *              array on the heap and the rest spilled to a memory-mapped
+ *              temporary file, so any number of solutions can be kept and
+ *              read back with a fixed heap.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolutionStore {
+
+    // Solutions kept on the heap before spilling, about 3 MiB of 9x9 ones
+    public static final int DEFAULT_HEAP_SOLUTIONS = 1 << 16;
+
+    // Solutions in each mapped region of the spill file, 48 MiB of 9x9 ones
+    private static final int REGION_SOLUTIONS = 1 << 20;
+
+    // Longs in each packed solution
+    private final int packedLength;
+
+    private final int maxHeapSolutions;
+    private long[] heapSolutions = new long[0];
+    private int heapCount = 0;
+
+    private FileChannel spillChannel;
+    private final List<LongBuffer> spillRegions = new ArrayList<>();
+    private long spillCount = 0;
+
+    // Scratch space for moving one solution between stores
+    private final long[] packed;
+
+    // A store of 9x9 solutions
+    public SudokuSolutionStore() {
+        this(DEFAULT_HEAP_SOLUTIONS);
+    }
+
+    public SudokuSolutionStore(int maxHeapSolutions) {
+        this(maxHeapSolutions, SudokuGrid.PACKED_LENGTH);
+    }
+
+    // A store of grids whose getPackedLength() is packedLength
+    public SudokuSolutionStore(int maxHeapSolutions, int packedLength) {
+        this.maxHeapSolutions = maxHeapSolutions;
+        this.packedLength = packedLength;
+        this.packed = new long[packedLength];
+    }
+
+    public long size() {
+        return this.heapCount + this.spillCount;
+    }
+
+    // Whether any solutions have been written to the spill file
+    public boolean hasSpilled() {
+        return this.spillCount > 0;
+    }
+
+    public void add(SudokuGrid grid) {
+        grid.pack(this.packed, 0);
+        this.addPacked(this.packed);
+    }
+
+    private void addPacked(long[] solution) {
+
+        if (this.heapCount < this.maxHeapSolutions) {
+            this.ensureHeapCapacity(this.heapCount + 1);
+            System.arraycopy(solution, 0, this.heapSolutions,
+                    this.packedLength * this.heapCount,
+                    this.packedLength);
+            this.heapCount++;
+            return;
+        }
+
+        int region = (int) (this.spillCount / REGION_SOLUTIONS);
+
+        if (region == this.spillRegions.size()) {
+            this.mapSpillRegion(region);
+        }
+
+        LongBuffer longs = this.spillRegions.get(region);
+        int offset = (int) (this.spillCount % REGION_SOLUTIONS)
+                * this.packedLength;
+
+        for (int i = 0; i < this.packedLength; i++) {
+            longs.put(offset + i, solution[i]);
+        }
+
+        this.spillCount++;
+    }
+
+    private void ensureHeapCapacity(int solutionCount) {
+
+        int length = this.packedLength * solutionCount;
+
+        if (length > this.heapSolutions.length) {
+            int maxLength = this.packedLength * this.maxHeapSolutions;
+            this.heapSolutions = Arrays.copyOf(this.heapSolutions, Math.min(
+                    maxLength, Math.max(length, 2 * this.heapSolutions.length)));
+        }
+    }
+
+    // Throws UncheckedIOException if the spill file cannot be written
+    private void mapSpillRegion(int region) {
+
+        try {
+            if (this.spillChannel == null) {
+                Path file = Files.createTempFile("sudoku-solutions", ".bin");
+                file.toFile().deleteOnExit();
+                this.spillChannel = FileChannel.open(file,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+            }
+
+            long regionBytes = 8L * REGION_SOLUTIONS * this.packedLength;
+
+            this.spillRegions.add(this.spillChannel.map(
+                    FileChannel.MapMode.READ_WRITE, region * regionBytes,
+                    regionBytes).order(ByteOrder.nativeOrder()).asLongBuffer());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not store solutions in a"
+                    + " temporary file", e);
+        }
+    }
+
+    // Copy a solution, numbered from 0 in the order added, into a grid
+    public void copySolution(long index, SudokuGrid grid) {
+
+        if (index < this.heapCount) {
+            grid.unpack(this.heapSolutions,
+                        this.packedLength * (int) index);
+            return;
+        }
+
+        long spillIndex = index - this.heapCount;
+        LongBuffer longs
+                = this.spillRegions.get((int) (spillIndex / REGION_SOLUTIONS));
+        int offset = (int) (spillIndex % REGION_SOLUTIONS)
+                * this.packedLength;
+
+        for (int i = 0; i < this.packedLength; i++) {
+            this.packed[i] = longs.get(offset + i);
+        }
+
+        grid.unpack(this.packed, 0);
+    }
+
+    // Add the solutions of another store after this store's own
+    public void addAll(SudokuSolutionStore other) {
+
+        for (int i = 0; i < other.heapCount; i++) {
+            System.arraycopy(other.heapSolutions,
+                    this.packedLength * i, this.packed, 0,
+                    this.packedLength);
+            this.addPacked(this.packed);
+        }
+
+        for (long i = 0; i < other.spillCount; i++) {
+            LongBuffer longs
+                    = other.spillRegions.get((int) (i / REGION_SOLUTIONS));
+            int offset = (int) (i % REGION_SOLUTIONS)
+                    * this.packedLength;
+            for (int j = 0; j < this.packedLength; j++) {
+                this.packed[j] = longs.get(offset + j);
+            }
+            this.addPacked(this.packed);
+        }
+    }
+
+    /* Drop every solution and delete the spill file. The mapped regions
+     * are released by the garbage collector.
+     */
+    public void clear() {
+
+        this.heapSolutions = new long[0];
+        this.heapCount = 0;
+        this.spillRegions.clear();
+        this.spillCount = 0;
+
+        if (this.spillChannel != null) {
+            try {
+                this.spillChannel.close();
+            }
+            catch (IOException e) {
+                // The file is still deleted when the program exits
+            }
+            this.spillChannel = null;
+        }
+    }
+}
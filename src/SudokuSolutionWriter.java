@@ -0,0 +1,269 @@
+package sudoku;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filename:    SudokuSolutionWriter.java
+ * Purpose:     Write solutions through one large buffer in any of the
+ *              output formats, without going through System.out for each
+ *              character. Grids larger than 9x9 have values of two digits,
+ *              padded with a space in the pretty format and with a 0 in the
+ *              line format, and one byte per square in the binary format.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolutionWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Most bytes any format writes for each square of one solution
+    private static final int MAX_RECORD_SIZE_PER_CELL = 16;
+
+    private final OutputStream out;
+    private final SudokuOutputFormat format;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+
+    // Lines between the boxes of the pretty format, for the last box size
+    private int separatorBoxSize = 0;
+    private byte[] boxRowSeparator;
+    private byte[] boxColumnSeparator;
+
+    public SudokuSolutionWriter(OutputStream out, SudokuOutputFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    public SudokuOutputFormat getFormat() {
+        return this.format;
+    }
+
+    private void ensureSpace(int size) {
+        if (this.position + size > BUFFER_SIZE) {
+            this.flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        try {
+            this.out.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+        catch (IOException e) {
+            this.exitWithWriteError();
+        }
+    }
+
+    private void exitWithWriteError() {
+        ErrorHandler error = new ErrorHandler();
+        error.printAndExit("Error: Could not write solutions.", true, 1);
+    }
+
+    private void put(byte b) {
+        this.buffer[this.position++] = b;
+    }
+
+    private void put(byte[] bytes) {
+        System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+        this.position += bytes.length;
+    }
+
+    private void putDigit(int val) {
+        this.buffer[this.position++] = (byte) ('0' + val);
+    }
+
+    // Put a value of a grid with the given side, two digits wide if needed
+    private void putValue(int val, int side, byte padding) {
+
+        if (side > 9) {
+            this.buffer[this.position++]
+                    = val >= 10 ? (byte) ('0' + val / 10) : padding;
+            val %= 10;
+        }
+
+        this.buffer[this.position++] = (byte) ('0' + val);
+    }
+
+    public void writeText(String text) {
+
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+
+        if (bytes.length > BUFFER_SIZE) {
+            this.flushBuffer();
+            try {
+                this.out.write(bytes);
+            }
+            catch (IOException e) {
+                this.exitWithWriteError();
+            }
+            return;
+        }
+
+        this.ensureSpace(bytes.length);
+        this.put(bytes);
+    }
+
+    // Write a solution, numbered from 1 in the pretty format
+    public void writeSolution(SudokuGrid grid, long number) {
+
+        switch (this.format) {
+            case PRETTY:
+                this.writeText("\nSolution " + number + ":\n-----------\n");
+                this.writeGrid(grid);
+                this.writeText("\n");
+                break;
+            default:
+                this.writeGrid(grid);
+        }
+    }
+
+    // Write a grid on its own in the writer's format
+    public void writeGrid(SudokuGrid grid) {
+
+        this.ensureSpace(MAX_RECORD_SIZE_PER_CELL * grid.getCellCount());
+
+        switch (this.format) {
+            case PRETTY:
+                this.putPretty(grid);
+                break;
+            case LINE:
+                this.putLine(grid);
+                break;
+            case CSV:
+                this.putCsv(grid);
+                break;
+            default:
+                this.putBinary(grid);
+        }
+    }
+
+    /* Build the lines between boxes for a box size: a row of dashes
+     * between bands and, between the rows of a band, a bar under each gap
+     * between stacks.
+     */
+    private void buildSeparators(int boxSize) {
+
+        int side = boxSize * boxSize;
+        int cellWidth = side > 9 ? 4 : 3;
+        StringBuilder dashes = new StringBuilder();
+        StringBuilder bars = new StringBuilder("\n");
+
+        for (int i = 0; i < side * cellWidth + boxSize - 2; i++) {
+            dashes.append('-');
+        }
+        dashes.append('\n');
+
+        for (int b = 1; b < boxSize; b++) {
+            while (bars.length() < b * (boxSize * cellWidth + 1) - 1) {
+                bars.append(' ');
+            }
+            bars.append('|');
+        }
+
+        this.boxRowSeparator
+                = dashes.toString().getBytes(StandardCharsets.US_ASCII);
+        this.boxColumnSeparator
+                = bars.toString().getBytes(StandardCharsets.US_ASCII);
+        this.separatorBoxSize = boxSize;
+    }
+
+    private void putPretty(SudokuGrid grid) {
+
+        int boxSize = grid.getBoxSize();
+        int side = grid.getSide();
+
+        if (boxSize != this.separatorBoxSize) {
+            this.buildSeparators(boxSize);
+        }
+
+        for (int i = 0; i < side; i++) {
+
+            this.put((byte) '\n');
+
+            if (i != 0 && i % boxSize == 0) {
+                this.put(this.boxRowSeparator);
+            }
+
+            for (int j = 0; j < side; j++) {
+
+                this.putValue(grid.get(i, j), side, (byte) ' ');
+
+                if (j % boxSize == boxSize - 1 && j != side - 1) {
+                    this.put((byte) ' ');
+                    this.put((byte) '|');
+                    this.put((byte) ' ');
+                }
+                else {
+                    this.put((byte) ' ');
+                    this.put((byte) ' ');
+                }
+            }
+
+            if (i % boxSize != boxSize - 1) {
+                this.put(this.boxColumnSeparator);
+            }
+        }
+
+        this.put((byte) '\n');
+    }
+
+    private void putLine(SudokuGrid grid) {
+
+        int side = grid.getSide();
+
+        for (int i = 0; i < grid.getCellCount(); i++) {
+            this.putValue(grid.get(i), side, (byte) '0');
+        }
+
+        this.put((byte) '\n');
+    }
+
+    private void putCsv(SudokuGrid grid) {
+
+        for (int i = 0; i < grid.getCellCount(); i++) {
+            if (i > 0) {
+                this.put((byte) ',');
+            }
+            int val = grid.get(i);
+            if (val >= 10) {
+                this.putDigit(val / 10);
+            }
+            this.putDigit(val % 10);
+        }
+
+        this.put((byte) '\n');
+    }
+
+    private void putBinary(SudokuGrid grid) {
+
+        int cellCount = grid.getCellCount();
+
+        if (grid.getSide() > 15) {
+            for (int i = 0; i < cellCount; i++) {
+                this.put((byte) grid.get(i));
+            }
+            return;
+        }
+
+        for (int i = 0; i < cellCount; i += 2) {
+            int high = grid.get(i);
+            int low = i + 1 < cellCount ? grid.get(i + 1) : 0;
+            this.put((byte) (high << 4 | low));
+        }
+    }
+
+    public void flush() {
+
+        this.flushBuffer();
+
+        try {
+            this.out.flush();
+        }
+        catch (IOException e) {
+            this.exitWithWriteError();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuSolveOptions.java
+ * Purpose:     Settings for how SudokuHandler searches for solutions.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolveOptions {
+
+    // Deepest level of the search tree that is split between threads
+    public static final int DEFAULT_SPLIT_DEPTH = 8;
+
+    // Seconds between saves of the progress of a search
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 60;
+
+    private boolean useMultithreading = false;
+    private boolean useMinimumRemainingValues = false;
+    private boolean useConstraintPropagation = false;
+    private boolean useDancingLinks = false;
+    private int splitDepth = DEFAULT_SPLIT_DEPTH;
+    private long maxSolutions = Long.MAX_VALUE;
+    private long timeLimitMillis = SudokuSolutionBuffer.NO_TIME_LIMIT;
+    private boolean countOnly = false;
+    private SudokuOutputFormat outputFormat = SudokuOutputFormat.PRETTY;
+
+    // Batch mode settings: fill singles in blocks of puzzles at once, and
+    // check every result against the exact cover solver
+    private boolean useBitSlicing = false;
+    private boolean verifying = false;
+
+    // Format to print search statistics in, or null not to print them
+    private SudokuStatsFormat statsFormat = null;
+
+    // File to save the progress of the search to, or null not to save it,
+    // and whether to carry on from the progress already saved there
+    private String checkpointPath = null;
+    private long checkpointIntervalSeconds = DEFAULT_CHECKPOINT_INTERVAL;
+    private boolean resuming = false;
+
+    // Worker processes to share the search between, or 0 to search in this
+    // process
+    private int workerCount = 0;
+
+    // Grade puzzles with SudokuGrader instead of finding their solutions
+    private boolean grading = false;
+
+    public SudokuSolveOptions() {}
+
+    public SudokuSolveOptions(SudokuSolveOptions other) {
+        this.useMultithreading = other.useMultithreading;
+        this.useMinimumRemainingValues = other.useMinimumRemainingValues;
+        this.useConstraintPropagation = other.useConstraintPropagation;
+        this.useDancingLinks = other.useDancingLinks;
+        this.splitDepth = other.splitDepth;
+        this.maxSolutions = other.maxSolutions;
+        this.timeLimitMillis = other.timeLimitMillis;
+        this.countOnly = other.countOnly;
+        this.outputFormat = other.outputFormat;
+        this.statsFormat = other.statsFormat;
+        this.useBitSlicing = other.useBitSlicing;
+        this.verifying = other.verifying;
+        this.checkpointPath = other.checkpointPath;
+        this.checkpointIntervalSeconds = other.checkpointIntervalSeconds;
+        this.resuming = other.resuming;
+        this.workerCount = other.workerCount;
+        this.grading = other.grading;
+    }
+
+    public boolean isUsingMultithreading() {
+        return this.useMultithreading;
+    }
+
+    public void setUseMultithreading(boolean useMultithreading) {
+        this.useMultithreading = useMultithreading;
+    }
+
+    public boolean isUsingMinimumRemainingValues() {
+        return this.useMinimumRemainingValues;
+    }
+
+    public void setUseMinimumRemainingValues(
+            boolean useMinimumRemainingValues) {
+        this.useMinimumRemainingValues = useMinimumRemainingValues;
+    }
+
+    public boolean isUsingConstraintPropagation() {
+        return this.useConstraintPropagation;
+    }
+
+    public void setUseConstraintPropagation(boolean useConstraintPropagation) {
+        this.useConstraintPropagation = useConstraintPropagation;
+    }
+
+    public boolean isUsingDancingLinks() {
+        return this.useDancingLinks;
+    }
+
+    public void setUseDancingLinks(boolean useDancingLinks) {
+        this.useDancingLinks = useDancingLinks;
+    }
+
+    public int getSplitDepth() {
+        return this.splitDepth;
+    }
+
+    public void setSplitDepth(int splitDepth) {
+        this.splitDepth = splitDepth;
+    }
+
+    public long getMaxSolutions() {
+        return this.maxSolutions;
+    }
+
+    public void setMaxSolutions(long maxSolutions) {
+        this.maxSolutions = maxSolutions;
+    }
+
+    // Time limit for each solve in milliseconds, or 0 for no limit
+    public long getTimeLimitMillis() {
+        return this.timeLimitMillis;
+    }
+
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public boolean isCountOnly() {
+        return this.countOnly;
+    }
+
+    public void setCountOnly(boolean countOnly) {
+        this.countOnly = countOnly;
+    }
+
+    public SudokuOutputFormat getOutputFormat() {
+        return this.outputFormat;
+    }
+
+    public void setOutputFormat(SudokuOutputFormat outputFormat) {
+        this.outputFormat = outputFormat;
+    }
+
+    public SudokuStatsFormat getStatsFormat() {
+        return this.statsFormat;
+    }
+
+    public void setStatsFormat(SudokuStatsFormat statsFormat) {
+        this.statsFormat = statsFormat;
+    }
+
+    public boolean isUsingBitSlicing() {
+        return this.useBitSlicing;
+    }
+
+    public void setUseBitSlicing(boolean useBitSlicing) {
+        this.useBitSlicing = useBitSlicing;
+    }
+
+    public boolean isVerifying() {
+        return this.verifying;
+    }
+
+    public void setVerifying(boolean verifying) {
+        this.verifying = verifying;
+    }
+
+    public String getCheckpointPath() {
+        return this.checkpointPath;
+    }
+
+    public void setCheckpointPath(String checkpointPath) {
+        this.checkpointPath = checkpointPath;
+    }
+
+    public long getCheckpointIntervalSeconds() {
+        return this.checkpointIntervalSeconds;
+    }
+
+    public void setCheckpointIntervalSeconds(long checkpointIntervalSeconds) {
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+    }
+
+    public boolean isResuming() {
+        return this.resuming;
+    }
+
+    public void setResuming(boolean resuming) {
+        this.resuming = resuming;
+    }
+
+    public int getWorkerCount() {
+        return this.workerCount;
+    }
+
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    public boolean isGrading() {
+        return this.grading;
+    }
+
+    public void setGrading(boolean grading) {
+        this.grading = grading;
+    }
+}
@@ -0,0 +1,21 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuSolver.java
+ * Purpose:     Common interface for the engines that SudokuHandler can use
+ *              to find the solutions to a sudoku grid.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public interface SudokuSolver {
+
+    /* Pass every solution of the grid (0 for an empty cell) to the sink,
+     * stopping early if the sink asks to. The grid passed in is left
+     * unchanged.
+     */
+    void solveAll(SudokuGrid grid, SudokuSolutionSink sink);
+
+    // Add the counters of the search since the grid was loaded to stats
+    void addStatsTo(SudokuSolverStats stats);
+}
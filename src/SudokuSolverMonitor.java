@@ -0,0 +1,92 @@
+package sudoku;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Filename:    SudokuSolverMonitor.java
+ * Purpose:     Total the search statistics of every solve in a long-running
+ *              process and publish them over JMX, so they can be watched
+ *              while batches run or the server answers requests. Safe to
+ *              share between threads.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolverMonitor implements SudokuSolverMonitorMXBean {
+
+    // Name the monitor is registered under with the platform MBean server
+    public static final String OBJECT_NAME = "sudoku:type=SolverStats";
+
+    private final SudokuSolverStats totals = new SudokuSolverStats();
+
+    public SudokuSolverMonitor() {}
+
+    // Publish over JMX under OBJECT_NAME
+    public void register() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                new ObjectName(OBJECT_NAME));
+    }
+
+    // Add the statistics of one or more finished solves
+    public synchronized void record(SudokuSolverStats stats) {
+        this.totals.addAll(stats);
+    }
+
+    // A copy of the totals so far
+    public synchronized SudokuSolverStats getStats() {
+        return new SudokuSolverStats(this.totals);
+    }
+
+    @Override
+    public synchronized long getSolveCount() {
+        return this.totals.getSolveCount();
+    }
+
+    @Override
+    public synchronized long getNodeCount() {
+        return this.totals.getNodeCount();
+    }
+
+    @Override
+    public synchronized long getRejectedCandidateCount() {
+        return this.totals.getRejectedCount();
+    }
+
+    @Override
+    public synchronized long getBacktrackCount() {
+        return this.totals.getBacktrackCount();
+    }
+
+    @Override
+    public synchronized int getMaxDepth() {
+        return this.totals.getMaxDepth();
+    }
+
+    @Override
+    public synchronized long getPropagationFillCount() {
+        return this.totals.getPropagationFillCount();
+    }
+
+    @Override
+    public synchronized long getSearchTimeNanos() {
+        return this.totals.getSearchNanos();
+    }
+
+    @Override
+    public synchronized Map<String, Long> getWorkerTimeNanos() {
+        return this.totals.getWorkerNanos();
+    }
+
+    @Override
+    public synchronized String getJson() {
+        return this.totals.toJson();
+    }
+
+    @Override
+    public synchronized void reset() {
+        this.totals.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package sudoku;
+
+import java.util.Map;
+
+/**
+ * Filename:    SudokuSolverMonitorMXBean.java
+ * Purpose:     The search statistics SudokuSolverMonitor publishes over JMX,
+ *              totalled over every solve since it was created or reset.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public interface SudokuSolverMonitorMXBean {
+
+    long getSolveCount();
+
+    long getNodeCount();
+
+    long getRejectedCandidateCount();
+
+    long getBacktrackCount();
+
+    int getMaxDepth();
+
+    long getPropagationFillCount();
+
+    long getSearchTimeNanos();
+
+    Map<String, Long> getWorkerTimeNanos();
+
+    // Every statistic as one JSON object
+    String getJson();
+
+    void reset();
+}
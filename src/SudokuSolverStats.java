@@ -0,0 +1,245 @@
+package sudoku;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Filename:    SudokuSolverStats.java
+ * Purpose:     Counters describing the work done by a search: nodes
+ *              visited, candidates rejected, backtracks, the deepest level
+ *              reached and cells filled by propagation, with the time and
+ *              nodes of each worker thread so that uneven splits show up.
+ *              Not safe to share between threads; each thread counts into
+ *              its own and the results are added together at the end.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolverStats {
+
+    private long solveCount = 0;
+    private long nodeCount = 0;
+    private long rejectedCount = 0;
+    private long backtrackCount = 0;
+    private long propagationFillCount = 0;
+    private int maxDepth = 0;
+
+    // Work of each thread by name, sorted so output is stable
+    private final Map<String, Worker> workers = new TreeMap<>();
+
+    private static class Worker {
+
+        private long nanos = 0;
+        private long nodeCount = 0;
+        private long taskCount = 0;
+
+        private void add(long nanos, long nodeCount, long taskCount) {
+            this.nanos += nanos;
+            this.nodeCount += nodeCount;
+            this.taskCount += taskCount;
+        }
+    }
+
+    public SudokuSolverStats() {}
+
+    public SudokuSolverStats(SudokuSolverStats other) {
+        this.addAll(other);
+    }
+
+    // Add the counters of one search, or one part of a search
+    public void addCounts(long nodeCount, long rejectedCount,
+                          long backtrackCount, long propagationFillCount,
+                          int maxDepth) {
+        this.nodeCount += nodeCount;
+        this.rejectedCount += rejectedCount;
+        this.backtrackCount += backtrackCount;
+        this.propagationFillCount += propagationFillCount;
+        this.maxDepth = Math.max(this.maxDepth, maxDepth);
+    }
+
+    // Time a thread spent searching and the nodes it visited meanwhile
+    public void addWorkerTime(String threadName, long nanos, long nodeCount) {
+        this.addWorker(threadName, nanos, nodeCount, 1);
+    }
+
+    private void addWorker(String threadName, long nanos, long nodeCount,
+                           long taskCount) {
+
+        Worker worker = this.workers.get(threadName);
+
+        if (worker == null) {
+            worker = new Worker();
+            this.workers.put(threadName, worker);
+        }
+
+        worker.add(nanos, nodeCount, taskCount);
+    }
+
+    // Count one finished solve, for totals kept across many solves
+    public void countSolve() {
+        this.solveCount++;
+    }
+
+    // Add the counters of another part of the same search or another solve
+    public void addAll(SudokuSolverStats other) {
+
+        this.solveCount += other.solveCount;
+        this.addCounts(other.nodeCount, other.rejectedCount,
+                       other.backtrackCount, other.propagationFillCount,
+                       other.maxDepth);
+
+        for (Map.Entry<String, Worker> entry : other.workers.entrySet()) {
+            Worker worker = entry.getValue();
+            this.addWorker(entry.getKey(), worker.nanos, worker.nodeCount,
+                           worker.taskCount);
+        }
+    }
+
+    public void clear() {
+        this.solveCount = 0;
+        this.nodeCount = 0;
+        this.rejectedCount = 0;
+        this.backtrackCount = 0;
+        this.propagationFillCount = 0;
+        this.maxDepth = 0;
+        this.workers.clear();
+    }
+
+    public long getSolveCount() {
+        return this.solveCount;
+    }
+
+    // Search nodes entered, each one a cell about to be branched on
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /* Values ruled out for the cells branched on, either by the other
+     * values in their row, column and box or by propagation failing
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount;
+    }
+
+    // Dead ends, where the search had to back up without a solution
+    public long getBacktrackCount() {
+        return this.backtrackCount;
+    }
+
+    /* Cells filled by propagation, before the search and after each value
+     * tried. A multithreaded search repeats some of this work in each task.
+     */
+    public long getPropagationFillCount() {
+        return this.propagationFillCount;
+    }
+
+    // Most values guessed at once on the way to any node
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    // Total time spent searching by every thread
+    public long getSearchNanos() {
+
+        long nanos = 0;
+
+        for (Worker worker : this.workers.values()) {
+            nanos += worker.nanos;
+        }
+
+        return nanos;
+    }
+
+    // Time spent searching by each thread
+    public Map<String, Long> getWorkerNanos() {
+
+        Map<String, Long> nanos = new TreeMap<>();
+
+        for (Map.Entry<String, Worker> entry : this.workers.entrySet()) {
+            nanos.put(entry.getKey(), entry.getValue().nanos);
+        }
+
+        return nanos;
+    }
+
+    public String toText() {
+
+        StringBuilder text = new StringBuilder();
+
+        text.append("Search statistics:\n");
+        text.append("  Nodes visited:               ").append(this.nodeCount)
+            .append('\n');
+        text.append("  Candidates rejected:         ")
+            .append(this.rejectedCount).append('\n');
+        text.append("  Backtracks:                  ")
+            .append(this.backtrackCount).append('\n');
+        text.append("  Maximum depth:               ").append(this.maxDepth)
+            .append('\n');
+        text.append("  Cells filled by propagation: ")
+            .append(this.propagationFillCount).append('\n');
+
+        if (!this.workers.isEmpty()) {
+            text.append("  Time per thread:\n");
+        }
+
+        for (Map.Entry<String, Worker> entry : this.workers.entrySet()) {
+            Worker worker = entry.getValue();
+            text.append(String.format("    %s: %.3f ms, %d nodes, %d tasks%n",
+                    entry.getKey(), worker.nanos / 1e6, worker.nodeCount,
+                    worker.taskCount));
+        }
+
+        return text.toString();
+    }
+
+    public String toJson() {
+
+        StringBuilder json = new StringBuilder();
+
+        json.append("{\"solves\":").append(this.solveCount)
+            .append(",\"nodes\":").append(this.nodeCount)
+            .append(",\"rejectedCandidates\":").append(this.rejectedCount)
+            .append(",\"backtracks\":").append(this.backtrackCount)
+            .append(",\"maxDepth\":").append(this.maxDepth)
+            .append(",\"propagationFills\":")
+            .append(this.propagationFillCount)
+            .append(",\"workers\":[");
+
+        boolean first = true;
+
+        for (Map.Entry<String, Worker> entry : this.workers.entrySet()) {
+
+            Worker worker = entry.getValue();
+
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+
+            json.append("{\"thread\":\"");
+            appendEscaped(json, entry.getKey());
+            json.append("\",\"nanos\":").append(worker.nanos)
+                .append(",\"nodes\":").append(worker.nodeCount)
+                .append(",\"tasks\":").append(worker.taskCount)
+                .append('}');
+        }
+
+        return json.append("]}").toString();
+    }
+
+    private static void appendEscaped(StringBuilder json, String text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            }
+            else if (c < ' ') {
+                json.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                json.append(c);
+            }
+        }
+    }
+}
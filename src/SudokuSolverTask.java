@@ -0,0 +1,212 @@
+package sudoku;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filename:    SudokuSolverTask.java
+ * Purpose:     A fork/join task that solves one subtree of the sudoku search,
+ *              splitting it into a subtask per candidate value while it is
+ *              shallow enough and other workers may need something to steal.
+ *              Each task keeps its own solution buffer and search counters.
+ *              The solutions are moved to the root task's buffer in search
+ *              order as soon as each subtree is searched, so only those
+ *              found out of order wait in the task buffers; the counters
+ *              are merged once every task has finished.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSolverTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Stop splitting once this many of the worker's own tasks are queued
+     * and not yet stolen, as there is already work for idle workers.
+     */
+    private static final int SURPLUS_TASK_LIMIT = 3;
+
+    // Solutions each task keeps on the heap before spilling to disk
+    private static final int TASK_HEAP_SOLUTIONS = 1 << 8;
+
+    private final SudokuGrid grid;
+    private final ThreadLocal<SudokuBacktrackingSolver> workerSolvers;
+    private final int splitDepth;
+    
+    // Only written by the thread running this task
+    private final SudokuSolutionBuffer buffer;
+    private final SudokuSolverStats stats = new SudokuSolverStats();
+    private final List<SudokuSolverTask> subtasks = new ArrayList<>();
+
+    // Set once the buffer and subtasks are final and can be collected
+    private volatile boolean searched = false;
+    private final Collector collector;
+
+    // Values fixed on the way down to this subtree, as 9 * cell + val - 1
+    private final int[] path;
+
+    /* Moves the solutions of finished subtrees to one buffer in the order
+     * a single thread would have found them. Whichever thread finds work
+     * to do collects for every thread that asks in the meantime, so no
+     * thread waits for another.
+     */
+    private static class Collector {
+
+        private final SudokuSolutionBuffer allSolutions;
+
+        // Tasks not yet collected, in search order, guarded by requests
+        private final ArrayDeque<SudokuSolverTask> waiting
+                = new ArrayDeque<>();
+
+        // Calls to collectReady() not yet acted on
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private Collector(SudokuSolutionBuffer allSolutions) {
+            this.allSolutions = allSolutions;
+        }
+
+        private void collectReady() {
+
+            // Another thread is collecting and will see this request
+            if (this.requests.getAndIncrement() != 0) {
+                return;
+            }
+
+            int seen;
+
+            do {
+                seen = this.requests.get();
+
+                while (!this.waiting.isEmpty()
+                        && this.waiting.peekFirst().searched) {
+
+                    SudokuSolverTask task = this.waiting.pollFirst();
+
+                    this.allSolutions.addAll(task.buffer);
+                    task.buffer.clearSolutions();
+
+                    // The subtasks come after the task's own solutions
+                    for (int i = task.subtasks.size() - 1; i >= 0; i--) {
+                        this.waiting.addFirst(task.subtasks.get(i));
+                    }
+                }
+            } while (!this.requests.compareAndSet(seen, 0));
+        }
+    }
+
+    /* Solutions are added to the given buffer as the subtrees finish.
+     * Every task searches into a small buffer of its own sharing its
+     * settings and solution counter.
+     */
+    public SudokuSolverTask(SudokuGrid grid, 
+                            ThreadLocal<SudokuBacktrackingSolver> workerSolvers,
+                            int splitDepth, SudokuSolutionBuffer buffer) {
+        this(grid, workerSolvers, splitDepth, buffer, new int[0],
+             new Collector(buffer));
+        this.collector.waiting.add(this);
+    }
+
+    private SudokuSolverTask(SudokuGrid grid, 
+                             ThreadLocal<SudokuBacktrackingSolver> workerSolvers,
+                             int splitDepth, SudokuSolutionBuffer buffer,
+                             int[] path, Collector collector) {
+        this.grid = grid;
+        this.workerSolvers = workerSolvers;
+        this.splitDepth = splitDepth;
+        this.buffer = buffer.newSharedBuffer(TASK_HEAP_SOLUTIONS);
+        this.path = path;
+        this.collector = collector;
+    }
+
+    @Override
+    protected void compute() {
+
+        // Skip the subtree if enough solutions have already been found
+        if (!this.buffer.isStopped()) {
+
+            long startTime = System.nanoTime();
+
+            // Each worker thread reuses its own solver for every task
+            SudokuBacktrackingSolver solver = this.workerSolvers.get();
+
+            this.searchOrSplit(solver);
+
+            // Time spent on the subtasks is counted by the subtasks
+            solver.addStatsTo(this.stats);
+            this.stats.addWorkerTime(Thread.currentThread().getName(),
+                                     System.nanoTime() - startTime,
+                                     this.stats.getNodeCount());
+        }
+
+        // A skipped task is still collected, to reach the ones after it
+        this.searched = true;
+        this.collector.collectReady();
+
+        if (!this.subtasks.isEmpty()) {
+            invokeAll(this.subtasks);
+        }
+    }
+
+    /* Search the whole subtree, or create a subtask for each value of the
+     * cell it branches on when it is worth splitting.
+     */
+    private void searchOrSplit(SudokuBacktrackingSolver solver) {
+
+        if (!solver.load(this.grid)) {
+            return;
+        }
+
+        for (int move : this.path) {
+            if (!solver.place(move / 9, move % 9 + 1)) {
+                // Counted as the single-threaded search counts a value
+                // that propagation rules out
+                this.stats.addCounts(0, 1, 1, 0, 0);
+                return;
+            }
+        }
+
+        int cell = solver.getBranchCell();
+
+        if (cell == -1 || this.path.length >= this.splitDepth
+                || getSurplusQueuedTaskCount() > SURPLUS_TASK_LIMIT) {
+            solver.solve(this.buffer);
+            return;
+        }
+
+        int candidates = solver.getCandidates(cell);
+
+        // The cell split on is a node of the search like any other
+        this.stats.addCounts(1, 9 - Integer.bitCount(candidates),
+                             candidates == 0 ? 1 : 0, 0, this.path.length);
+
+        while (candidates != 0) {
+
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+
+            int[] subtaskPath = new int[this.path.length + 1];
+            System.arraycopy(this.path, 0, subtaskPath, 0, this.path.length);
+            subtaskPath[this.path.length] 
+                    = 9 * cell + SudokuCandidateMasks.bitValue(bit) - 1;
+
+            this.subtasks.add(new SudokuSolverTask(this.grid, 
+                    this.workerSolvers, this.splitDepth, this.buffer, 
+                    subtaskPath, this.collector));
+        }
+    }
+
+    /* Add the search counters of this subtree to stats. Only call once the
+     * task is done.
+     */
+    public void collectStats(SudokuSolverStats allStats) {
+
+        allStats.addAll(this.stats);
+
+        for (SudokuSolverTask subtask : this.subtasks) {
+            subtask.collectStats(allStats);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuStatsFormat.java
+ * Purpose:     The formats in which search statistics can be printed.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public enum SudokuStatsFormat {
+
+    // Labelled counters and a line per thread, for reading on screen
+    TEXT,
+
+    // One JSON object, for feeding into other tools
+    JSON;
+
+    // Look up a format by its name in any case, or return null
+    public static SudokuStatsFormat fromName(String name) {
+
+        for (SudokuStatsFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,262 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Filename:    SudokuStreamParser.java
+ * Purpose:     Read a stream of sudoku puzzles straight from a channel into a
+ *              reusable grid buffer, each puzzle either on one line of 81
+ *              characters or as a block of 9 comma-separated rows in the same
+ *              format as a single sudoku file. Works on bytes, so no strings
+ *              or regular expressions are created for valid input.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuStreamParser {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Longest line kept, which is more than any valid line needs
+    private static final int MAX_LINE_LENGTH = 256;
+
+    private static final byte FILE_DELIMITER = ',';
+
+    /* Accepted character in a one-line puzzle representing an empty
+     * square, aside from the ones accepted in a sudoku file.
+     */
+    private static final byte LINE_CHAR_EMPTY_SQUARE = '.';
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] data;
+    private int position = 0;
+    private int limit = 0;
+
+    // Non-whitespace characters of the current line
+    private final byte[] line = new byte[MAX_LINE_LENGTH];
+    private int lineLength;
+    private int lineDelimiters;
+    private long lineNumber = 0;
+
+    private final SudokuGrid cells = new SudokuGrid();
+    private long puzzleLineNumber;
+    private String error;
+
+    public SudokuStreamParser(ReadableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+    // A smaller buffer saves memory when only a little is to be read
+    public SudokuStreamParser(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.data = this.buffer.array();
+    }
+
+    private boolean fill() throws IOException {
+
+        this.buffer.clear();
+
+        int count;
+        do {
+            count = this.channel.read(this.buffer);
+        } while (count == 0);
+
+        this.position = 0;
+        this.limit = Math.max(count, 0);
+
+        return count > 0;
+    }
+
+    private static boolean isWhiteSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    // Read the next line, returning false at the end of the stream
+    private boolean readLine() throws IOException {
+
+        boolean readAny = false;
+
+        this.lineLength = 0;
+        this.lineDelimiters = 0;
+        this.lineNumber++;
+
+        while (true) {
+
+            if (this.position == this.limit && !this.fill()) {
+                return readAny;
+            }
+
+            byte b = this.data[this.position++];
+            readAny = true;
+
+            if (b == '\n') {
+                return true;
+            }
+
+            if (isWhiteSpace(b)) {
+                continue;
+            }
+
+            if (b == FILE_DELIMITER) {
+                this.lineDelimiters++;
+            }
+
+            if (this.lineLength < MAX_LINE_LENGTH) {
+                this.line[this.lineLength] = b;
+            }
+            this.lineLength++;
+        }
+    }
+
+    /* Read the next puzzle, returning false at the end of the stream.
+     * If the puzzle is not valid isValid() returns false and getError()
+     * says why.
+     */
+    public boolean readNext() throws IOException {
+
+        int rowCount = 0;
+
+        this.error = null;
+
+        while (this.readLine()) {
+
+            // Blank lines separate the blocks of comma-separated rows
+            if (this.lineLength == 0) {
+                if (rowCount > 0) {
+                    break;
+                }
+                continue;
+            }
+
+            if (rowCount == 0) {
+                this.puzzleLineNumber = this.lineNumber;
+                if (this.lineDelimiters == 0) {
+                    this.parseSingleLine();
+                    return true;
+                }
+            }
+
+            if (this.error == null) {
+                this.parseRow(rowCount);
+            }
+
+            rowCount++;
+
+            if (rowCount == 9) {
+                break;
+            }
+        }
+
+        if (rowCount == 0) {
+            return false;
+        }
+
+        if (rowCount != 9) {
+            this.error = "Error: Puzzle starting on line "
+                    + this.puzzleLineNumber + " does not have 9 rows";
+        }
+
+        return true;
+    }
+
+    private void parseSingleLine() {
+
+        if (this.lineLength != 81) {
+            this.error = "Error: Puzzle on line " + this.puzzleLineNumber
+                    + " does not have 81 squares";
+            return;
+        }
+
+        for (int i = 0; i < 81; i++) {
+
+            byte b = this.line[i];
+
+            if (b >= '1' && b <= '9') {
+                this.cells.set(i, b - '0');
+            }
+            else if (b == LINE_CHAR_EMPTY_SQUARE
+                    || SudokuFileParser.isEmptySquareChar((char) b)) {
+                this.cells.set(i, 0);
+            }
+            else {
+                this.error = "Error: Issue with source file on line "
+                        + this.lineNumber;
+                return;
+            }
+        }
+    }
+
+    private void parseRow(int row) {
+
+        if (this.lineDelimiters != 8) {
+            this.error = "Error: Wrong number of delimiters on line "
+                    + this.lineNumber;
+            return;
+        }
+
+        if (this.lineLength > MAX_LINE_LENGTH) {
+            this.error = "Error: Issue with source file on line "
+                    + this.lineNumber;
+            return;
+        }
+
+        int start = 9 * row;
+        int col = 0;
+        boolean cellFilled = false;
+
+        for (int i = 0; i < 9; i++) {
+            this.cells.set(start + i, 0);
+        }
+
+        for (int i = 0; i < this.lineLength; i++) {
+
+            byte b = this.line[i];
+
+            if (b == FILE_DELIMITER) {
+                col++;
+                cellFilled = false;
+                continue;
+            }
+
+            // Only one character is allowed between delimiters
+            if (cellFilled) {
+                this.error = "Error: Issue with source file on line "
+                        + this.lineNumber;
+                return;
+            }
+
+            if (b >= '1' && b <= '9') {
+                this.cells.set(start + col, b - '0');
+            }
+            else if (!SudokuFileParser.isEmptySquareChar((char) b)) {
+                this.error = "Error: Issue with source file on line "
+                        + this.lineNumber;
+                return;
+            }
+
+            cellFilled = true;
+        }
+    }
+
+    public boolean isValid() {
+        return this.error == null;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    // Line of the stream on which the last puzzle read starts
+    public long getPuzzleLineNumber() {
+        return this.puzzleLineNumber;
+    }
+
+    // Copy the last puzzle read into a grid, with 0 for empty squares
+    public void copyGrid(SudokuGrid grid) {
+        grid.copyFrom(this.cells);
+    }
+}
@@ -0,0 +1,90 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuSymmetry.java
+ * Purpose:     A change to a sudoku grid that keeps it a valid sudoku: an
+ *              optional transposition, then a reordering of the rows and of
+ *              the columns that keeps bands and stacks together, then a
+ *              relabelling of the digits. Maps grids both ways.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public class SudokuSymmetry {
+
+    private boolean transpose = false;
+
+    // Row and column of the original grid placed at each position
+    private final int[] rowOrder = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+    private final int[] colOrder = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+
+    // New label of each digit, with 0 (empty) always kept as 0
+    private final int[] digitMap = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+    private final int[] inverseDigitMap = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    public SudokuSymmetry() {}
+
+    /* Set every part of the symmetry. Digits left at 0 in the digit map
+     * are given the unused labels in increasing order.
+     */
+    public void set(boolean transpose, int[] rowOrder, int[] colOrder,
+                    int[] digitMap) {
+
+        this.transpose = transpose;
+        System.arraycopy(rowOrder, 0, this.rowOrder, 0, 9);
+        System.arraycopy(colOrder, 0, this.colOrder, 0, 9);
+
+        boolean[] labelUsed = new boolean[10];
+
+        for (int d = 1; d <= 9; d++) {
+            this.digitMap[d] = digitMap[d];
+            labelUsed[digitMap[d]] = true;
+        }
+
+        int nextLabel = 1;
+
+        for (int d = 1; d <= 9; d++) {
+            if (this.digitMap[d] == 0) {
+                while (labelUsed[nextLabel]) {
+                    nextLabel++;
+                }
+                this.digitMap[d] = nextLabel;
+                labelUsed[nextLabel] = true;
+            }
+            this.inverseDigitMap[this.digitMap[d]] = d;
+        }
+    }
+
+    // Write the transformed grid into out, which must not be the input
+    public void apply(SudokuGrid grid, SudokuGrid out) {
+
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                int val;
+                if (this.transpose) {
+                    val = grid.get(this.colOrder[j], this.rowOrder[i]);
+                }
+                else {
+                    val = grid.get(this.rowOrder[i], this.colOrder[j]);
+                }
+                out.set(i, j, this.digitMap[val]);
+            }
+        }
+    }
+
+    // Undo apply(), writing into out, which must not be the input
+    public void invert(SudokuGrid grid, SudokuGrid out) {
+
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                int val = this.inverseDigitMap[grid.get(i, j)];
+                if (this.transpose) {
+                    out.set(this.colOrder[j], this.rowOrder[i], val);
+                }
+                else {
+                    out.set(this.rowOrder[i], this.colOrder[j], val);
+                }
+            }
+        }
+    }
+}
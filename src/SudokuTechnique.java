@@ -0,0 +1,74 @@
+package sudoku;
+
+/**
+ * Filename:    SudokuTechnique.java
+ * Purpose:     The solving techniques SudokuGrader tries, easiest first,
+ *              each with the rating it gives a puzzle that needs it. The
+ *              ratings follow the scale of Sudoku Explainer for the
+ *              techniques it shares.
+ *
+ * @author      Andrew Blackwood
+ * @version     1.0, 18/10/2026
+ */
+public enum SudokuTechnique {
+
+    // The only place left for a value in a row, column or box
+    HIDDEN_SINGLE("Hidden single", 1.5),
+
+    // The only value left for a cell
+    NAKED_SINGLE("Naked single", 2.3),
+
+    // A value's places in a box all on one line, or on a line all in one
+    // box, so it can go nowhere else on that line or in that box
+    LOCKED_CANDIDATES("Locked candidates", 2.6),
+
+    // N cells of a unit with only N values between them, so those values
+    // can go nowhere else in the unit
+    NAKED_PAIR("Naked pair", 3.0),
+
+    // A value with two places in each of two rows, in the same two
+    // columns, so it can go nowhere else in those columns (or the same
+    // with rows and columns swapped)
+    X_WING("X-Wing", 3.2),
+
+    // N values with only N places between them in a unit, so those cells
+    // can hold nothing else
+    HIDDEN_PAIR("Hidden pair", 3.4),
+    NAKED_TRIPLE("Naked triple", 3.6),
+
+    // X-Wing with three rows and three columns
+    SWORDFISH("Swordfish", 3.8),
+    HIDDEN_TRIPLE("Hidden triple", 4.0),
+    NAKED_QUAD("Naked quad", 5.0),
+
+    // X-Wing with four rows and four columns
+    JELLYFISH("Jellyfish", 5.2),
+    HIDDEN_QUAD("Hidden quad", 5.4),
+
+    /* Trying a value in the cell with the fewest candidates when nothing
+     * above applies. Each level of guesses inside another adds 1.0 to
+     * the rating.
+     */
+    BIFURCATION("Bifurcation", 7.0);
+
+    private final String displayName;
+    private final double rating;
+
+    SudokuTechnique(String displayName, double rating) {
+        this.displayName = displayName;
+        this.rating = rating;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    public double getRating() {
+        return this.rating;
+    }
+
+    // Name used in one-line results, such as "hidden-pair"
+    public String getKey() {
+        return this.name().toLowerCase().replace('_', '-');
+    }
+}